@@ -0,0 +1,52 @@
+package com.eevan.bankingservice.mappers;
+
+import com.eevan.bankingservice.dto.ClientDto;
+import com.eevan.bankingservice.entities.Client;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ClientMapperBenchmark {
+
+    @Param({"1", "1000"})
+    private int pageSize;
+
+    private final ClientMapper clientMapper = Mappers.getMapper(ClientMapper.class);
+    private List<Client> page;
+
+    @Setup
+    public void setUp() {
+        page = LongStream.rangeClosed(1, pageSize)
+                .mapToObj(id -> Client.builder().id(id).login("client" + id).password("secret")
+                        .name("Ivan").surname("Ivanov").patronymic("Ivanovich")
+                        .dateOfBirth(LocalDate.of(1990, 1, 1))
+                        .phoneNumberMain("7999" + id).emailMain("client" + id + "@example.com")
+                        .initialBalance(100.0).currentBalance(100.0).build())
+                .toList();
+    }
+
+    @Benchmark
+    public List<ClientDto> mapPage() {
+        return page.stream().map(clientMapper::toDto).toList();
+    }
+}
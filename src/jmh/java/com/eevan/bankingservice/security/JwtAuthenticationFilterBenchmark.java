@@ -0,0 +1,78 @@
+package com.eevan.bankingservice.security;
+
+import com.eevan.bankingservice.entities.Client;
+import com.eevan.bankingservice.repositories.ClientsRepository;
+import com.eevan.bankingservice.services.ClientCache;
+import com.eevan.bankingservice.services.ClientService;
+import com.eevan.bankingservice.services.ContactUniquenessIndex;
+import com.eevan.bankingservice.services.FioPrefixIndex;
+import com.eevan.bankingservice.services.HotAccounts;
+import com.eevan.bankingservice.services.InterestAccrualService;
+import com.eevan.bankingservice.services.LedgerService;
+import com.eevan.bankingservice.services.ReadYourWrites;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private final FilterChain chain = (request, response) -> { };
+
+    @Setup
+    public void setUp() {
+        Client client = Client.builder().id(1L).login("ivanov").password("secret").build();
+        ClientsRepository clientsRepository = mock(ClientsRepository.class);
+        when(clientsRepository.findByLogin("ivanov")).thenReturn(Optional.of(client));
+        ClientService clientService = new ClientService(clientsRepository, mock(EntityManager.class),
+                mock(InterestAccrualService.class), mock(LedgerService.class), mock(HotAccounts.class),
+                mock(ContactUniquenessIndex.class), mock(FioPrefixIndex.class), mock(ClientCache.class),
+                new ReadYourWrites(List.of(), 10_000), mock(PlatformTransactionManager.class), 100_000, 300);
+        JwtService jwtService = new JwtService(JwtServiceBenchmark.randomSigningKey(), 100_000);
+
+        filter = new JwtAuthenticationFilter(jwtService, clientService, new SimpleMeterRegistry(), List.of());
+        request = new MockHttpServletRequest("GET", "/api/clients/email");
+        request.addHeader(JwtAuthenticationFilter.HEADER_NAME,
+                JwtAuthenticationFilter.BEARER_PREFIX + jwtService.generateToken(client));
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Object authenticate() throws Exception {
+        try {
+            filter.doFilter(request, response, chain);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
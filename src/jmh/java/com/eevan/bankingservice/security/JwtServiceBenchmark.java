@@ -0,0 +1,53 @@
+package com.eevan.bankingservice.security;
+
+import com.eevan.bankingservice.entities.Client;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private Client client;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(randomSigningKey(), 100_000);
+        client = Client.builder().id(1L).login("ivanov").password("secret").build();
+        token = jwtService.generateToken(client);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(client);
+    }
+
+    @Benchmark
+    public String extractLogin() {
+        return jwtService.extractLogin(token);
+    }
+
+    static String randomSigningKey() {
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        return Base64.getEncoder().encodeToString(key);
+    }
+}
@@ -0,0 +1,122 @@
+package com.eevan.bankingservice.services;
+
+import com.eevan.bankingservice.repositories.ClientsRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives {@link InterestAccrualService} against an in-memory table that applies the same
+ * {@code LEAST(current_balance * rate, initial_balance * cap)} update as the native query,
+ * so the numbers cover chunking and the interest arithmetic without database round trips.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class InterestAccrualBenchmark {
+
+    private static final double RATE = 1.05;
+    private static final double CAP = 2.07;
+
+    @Param({"100000"})
+    private int clients;
+
+    @Param({"1000"})
+    private int chunkSize;
+
+    private double[] initialBalances;
+    private double[] currentBalances;
+    private InterestAccrualService accrualService;
+
+    @Setup
+    public void setUp() {
+        initialBalances = new double[clients + 1];
+        currentBalances = new double[clients + 1];
+        accrualService = new InterestAccrualService(inMemoryRepository(), new NoOpTransactionManager(),
+                new SimpleMeterRegistry(), new AccrualLeases(null, new NoOpTransactionManager(), false, 10000, 30,
+                "benchmark"), new LazyAccrual(null, false, RATE, CAP, 60000), chunkSize, 3, RATE, CAP);
+    }
+
+    @Setup(Level.Invocation)
+    public void resetBalances() {
+        Arrays.fill(initialBalances, 100.0);
+        Arrays.fill(currentBalances, 100.0);
+    }
+
+    @Benchmark
+    public AccrualRunStats accrue() {
+        return accrualService.accrue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private ClientsRepository inMemoryRepository() {
+        return (ClientsRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{ClientsRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findAccrualCandidates" -> findCandidates((long) args[0], (double) args[1], (int) args[2]);
+                    case "lockForAccrual" -> args[0];
+                    case "accrueInterest" -> accrue((List<Long>) args[0], (double) args[1], (double) args[2]);
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private List<Long> findCandidates(long afterId, double cap, int limit) {
+        List<Long> ids = new ArrayList<>(limit);
+        for (int id = (int) afterId + 1; id <= clients && ids.size() < limit; id++) {
+            if (currentBalances[id] < initialBalances[id] * cap) {
+                ids.add((long) id);
+            }
+        }
+        return ids;
+    }
+
+    private int accrue(List<Long> ids, double rate, double cap) {
+        int updated = 0;
+        for (long id : ids) {
+            int row = (int) id;
+            double limit = initialBalances[row] * cap;
+            if (currentBalances[row] < limit) {
+                currentBalances[row] = Math.min(currentBalances[row] * rate, limit);
+                updated++;
+            }
+        }
+        return updated;
+    }
+
+    private static class NoOpTransactionManager implements PlatformTransactionManager {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
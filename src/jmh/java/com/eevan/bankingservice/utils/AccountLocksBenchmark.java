@@ -0,0 +1,71 @@
+package com.eevan.bankingservice.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Compares the striped transfer locks with a single global monitor when many threads move money
+ * between random accounts. The hold is a park rather than CPU work because a real transfer holds
+ * its locks across database round trips.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(16)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AccountLocksBenchmark {
+
+    @Param({"4", "10000"})
+    private int accounts;
+
+    @Param({"50"})
+    private int holdMicros;
+
+    private AccountLocks accountLocks;
+    private final Object globalMonitor = new Object();
+
+    @Setup
+    public void setUp() {
+        accountLocks = new AccountLocks(1024);
+    }
+
+    @Benchmark
+    public void stripedLocks() {
+        List<Long> pair = randomPair();
+        try (AccountLocks.Held ignored = accountLocks.lock(pair)) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(holdMicros));
+        }
+    }
+
+    @Benchmark
+    public void globalMonitor() {
+        randomPair();
+        synchronized (globalMonitor) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(holdMicros));
+        }
+    }
+
+    private List<Long> randomPair() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long from = random.nextInt(accounts);
+        long to = (from + 1 + random.nextInt(accounts - 1)) % accounts;
+        return List.of(from, to);
+    }
+}
@@ -0,0 +1,78 @@
+package com.eevan.bankingservice.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class LoadTestReport {
+
+    private static final Map<String, Double> PERCENTILES = Map.of(
+            "p50", 50.0, "p90", 90.0, "p99", 99.0, "p999", 99.9);
+
+    private final LoadTestSettings settings;
+
+    public LoadTestReport(LoadTestSettings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Writes summary.json and one HdrHistogram percentile file per operation, and returns the
+     * threshold violations; an empty list means the run passed.
+     */
+    public List<String> write(LoadTestResult result) throws IOException {
+        Path dir = Path.of(settings.reportDir());
+        Files.createDirectories(dir);
+
+        List<String> violations = new ArrayList<>();
+        Map<String, Object> operations = new LinkedHashMap<>();
+        for (Map.Entry<Operation, Histogram> entry : result.histograms().entrySet()) {
+            Operation operation = entry.getKey();
+            Histogram histogram = entry.getValue();
+
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("count", histogram.getTotalCount());
+            summary.put("errors", result.errors().get(operation).sum());
+            summary.put("throughputPerSecond", (double) histogram.getTotalCount() / result.durationSeconds());
+            for (String name : List.of("p50", "p90", "p99", "p999")) {
+                double millis = histogram.getValueAtPercentile(PERCENTILES.get(name)) / 1000.0;
+                summary.put(name + "Ms", millis);
+                Double threshold = settings.threshold(operation, name);
+                if (threshold != null && millis > threshold) {
+                    violations.add(String.format("%s %s %.2f ms > %.2f ms", operation.key(), name, millis, threshold));
+                }
+            }
+            summary.put("maxMs", histogram.getMaxValue() / 1000.0);
+            operations.put(operation.key(), summary);
+
+            try (PrintStream out = new PrintStream(dir.resolve(operation.key() + ".hgrm").toFile())) {
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+
+        double errorRate = result.totalRequests() == 0 ? 1.0 : (double) result.totalErrors() / result.totalRequests();
+        if (errorRate > settings.maxErrorRate()) {
+            violations.add(String.format("error rate %.4f > %.4f", errorRate, settings.maxErrorRate()));
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("requestsPerSecond", settings.requestsPerSecond());
+        report.put("durationSeconds", result.durationSeconds());
+        report.put("clients", settings.clients());
+        report.put("applicationOverrides", settings.applicationOverrides());
+        report.put("errorRate", errorRate);
+        report.put("operations", operations);
+        report.put("violations", violations);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(dir.resolve("summary.json").toFile(), report);
+        return violations;
+    }
+}
@@ -0,0 +1,18 @@
+package com.eevan.bankingservice.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+public record LoadTestResult(Map<Operation, Histogram> histograms, Map<Operation, LongAdder> errors,
+                             long durationSeconds) {
+
+    public long totalRequests() {
+        return histograms.values().stream().mapToLong(Histogram::getTotalCount).sum();
+    }
+
+    public long totalErrors() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+}
@@ -0,0 +1,179 @@
+package com.eevan.bankingservice.loadtest;
+
+import com.eevan.bankingservice.BankingServiceApplication;
+import com.eevan.bankingservice.entities.Client;
+import com.eevan.bankingservice.security.JwtService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Boots the service against a throwaway Postgres, seeds clients and drives an open-loop HTTP
+ * workload. Exits with a non-zero status when any configured latency or error threshold is exceeded.
+ */
+@Slf4j
+public class LoadTestRunner {
+
+    private static final String PASSWORD = "password";
+    private static final int SEED_BATCH_SIZE = 1000;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadTestSettings settings;
+    private final AtomicLong signUps = new AtomicLong();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private List<Long> clientIds;
+    private List<String> tokens;
+    private String baseUrl;
+
+    public LoadTestRunner(LoadTestSettings settings) {
+        this.settings = settings;
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> violations = new LoadTestRunner(new LoadTestSettings()).run();
+        violations.forEach(violation -> log.error("Threshold exceeded: {}", violation));
+        System.exit(violations.isEmpty() ? 0 : 1);
+    }
+
+    public List<String> run() throws Exception {
+        EmbeddedPostgres postgres = null;
+        String jdbcUrl = settings.jdbcUrl();
+        String username = settings.jdbcUsername();
+        String password = settings.jdbcPassword();
+        if (jdbcUrl.isBlank()) {
+            postgres = EmbeddedPostgres.start();
+            jdbcUrl = postgres.getJdbcUrl("postgres", "postgres");
+            username = "postgres";
+            password = "";
+        }
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BankingServiceApplication.class)
+                .run(applicationArguments(jdbcUrl, username, password))) {
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            seed(context);
+
+            HttpClient httpClient = HttpClient.newBuilder().connectTimeout(REQUEST_TIMEOUT).build();
+            OpenLoopWorkload workload = new OpenLoopWorkload(httpClient, settings.mix(), this::request);
+            log.info("Running {} req/s for {}s after {}s warm-up against {} clients",
+                    settings.requestsPerSecond(), settings.durationSeconds(), settings.warmupSeconds(),
+                    settings.clients());
+            LoadTestResult result = workload.run(settings.requestsPerSecond(), settings.warmupSeconds(),
+                    settings.durationSeconds());
+            return new LoadTestReport(settings).write(result);
+        } finally {
+            if (postgres != null) {
+                postgres.close();
+            }
+        }
+    }
+
+    private String[] applicationArguments(String jdbcUrl, String username, String password) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("spring.datasource.url", jdbcUrl);
+        properties.put("spring.datasource.username", username);
+        properties.put("spring.datasource.password", password);
+        properties.put("server.port", 0);
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("logging.level.org.hibernate.SQL", "warn");
+        properties.put("logging.level.org.hibernate.type.descriptor.sql", "warn");
+        properties.put("logging.level.org.hibernate.orm.jdbc.bind", "warn");
+        properties.putAll(settings.applicationOverrides());
+        return properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+    }
+
+    private void seed(ConfigurableApplicationContext context) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(context.getBean(javax.sql.DataSource.class));
+        String encodedPassword = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH_SIZE);
+        for (int i = 0; i < settings.clients(); i++) {
+            batch.add(new Object[]{
+                    "load" + i, encodedPassword, "Name" + i % 100, "Surname" + i % 1000, "Patronymic",
+                    Date.valueOf(LocalDate.of(1970 + i % 40, 1 + i % 12, 1 + i % 28)),
+                    String.format("7000%07d", i), "load" + i + "@example.com", 1000.0, 1000.0
+            });
+            if (batch.size() == SEED_BATCH_SIZE || i == settings.clients() - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO clients (login, password, name, surname, patronymic, " +
+                        "birth_date, phone_main, email_main, initial_balance, current_balance) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        clientIds = jdbcTemplate.queryForList("SELECT id FROM clients WHERE login LIKE 'load%' ORDER BY id",
+                Long.class);
+
+        JwtService jwtService = context.getBean(JwtService.class);
+        tokens = new ArrayList<>(settings.tokenPoolSize());
+        for (int i = 0; i < settings.tokenPoolSize(); i++) {
+            tokens.add(jwtService.generateToken(Client.builder().login("load" + i).password(PASSWORD).build()));
+        }
+        log.info("Seeded {} clients", clientIds.size());
+    }
+
+    private HttpRequest request(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (operation) {
+            case SIGN_UP -> {
+                long n = signUps.incrementAndGet();
+                String login = "signup-" + runId + "-" + n;
+                yield post("/auth/sign-up", String.format("{\"login\":\"%s\",\"password\":\"%s\",\"name\":\"Name\"," +
+                                "\"surname\":\"Surname\",\"dateOfBirth\":\"01/01/1990\",\"phoneNumberMain\":\"8%s%09d\"," +
+                                "\"emailMain\":\"%s@example.com\",\"initialBalance\":1000}",
+                        login, PASSWORD, runId, n, login));
+            }
+            case SIGN_IN -> post("/auth/sign-in", String.format("{\"login\":\"load%d\",\"password\":\"%s\"}",
+                    random.nextInt(settings.clients()), PASSWORD));
+            case SEARCH -> authorized("/api/clients/search?surname=Surname" + random.nextInt(100) + "&size=20")
+                    .GET()
+                    .build();
+            case TRANSFER -> {
+                int from;
+                int to;
+                if (random.nextDouble() < settings.hotPayeeShare()) {
+                    from = 1 + random.nextInt(clientIds.size() - 1);
+                    to = 0;
+                } else {
+                    from = random.nextInt(clientIds.size());
+                    to = (from + 1 + random.nextInt(clientIds.size() - 1)) % clientIds.size();
+                }
+                yield authorized("/api/transfer?fromAccountId=" + clientIds.get(from) + "&toAccountId="
+                        + clientIds.get(to) + "&amount=1")
+                        .POST(HttpRequest.BodyPublishers.noBody())
+                        .build();
+            }
+        };
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        String token = tokens.get(ThreadLocalRandom.current().nextInt(tokens.size()));
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + token);
+    }
+}
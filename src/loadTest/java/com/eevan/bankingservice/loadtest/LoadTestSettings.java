@@ -0,0 +1,118 @@
+package com.eevan.bankingservice.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+public class LoadTestSettings {
+
+    private static final String APP_PREFIX = "loadtest.app.";
+
+    private final Properties properties = new Properties();
+
+    public LoadTestSettings() {
+        try (InputStream defaults = getClass().getResourceAsStream("/loadtest.properties")) {
+            if (defaults != null) {
+                properties.load(defaults);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("loadtest."))
+                .forEach(name -> properties.setProperty(name, System.getProperty(name)));
+    }
+
+    public String jdbcUrl() {
+        return properties.getProperty("loadtest.jdbc-url", "");
+    }
+
+    public String jdbcUsername() {
+        return properties.getProperty("loadtest.jdbc-username", "postgres");
+    }
+
+    public String jdbcPassword() {
+        return properties.getProperty("loadtest.jdbc-password", "");
+    }
+
+    public int clients() {
+        return intValue("loadtest.clients", 10_000);
+    }
+
+    public int tokenPoolSize() {
+        return Math.min(clients(), intValue("loadtest.token-pool-size", 1_000));
+    }
+
+    public double requestsPerSecond() {
+        return doubleValue("loadtest.rate", 20);
+    }
+
+    /**
+     * Share of transfers sent to the first seeded client, to model a merchant account most payers pay into.
+     */
+    public double hotPayeeShare() {
+        return doubleValue("loadtest.transfer.hot-payee-share", 0);
+    }
+
+    public int warmupSeconds() {
+        return intValue("loadtest.warmup-seconds", 10);
+    }
+
+    public int durationSeconds() {
+        return intValue("loadtest.duration-seconds", 60);
+    }
+
+    public Map<Operation, Integer> mix() {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            int weight = intValue("loadtest.mix." + operation.key(), 0);
+            if (weight > 0) {
+                mix.put(operation, weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix.* must give at least one operation a positive weight");
+        }
+        return mix;
+    }
+
+    public Double threshold(Operation operation, String percentile) {
+        String value = properties.getProperty("loadtest.threshold." + operation.key() + "." + percentile + "-ms");
+        return value == null || value.isBlank() ? null : Double.parseDouble(value);
+    }
+
+    public double maxErrorRate() {
+        return doubleValue("loadtest.threshold.max-error-rate", 0.01);
+    }
+
+    /**
+     * Properties prefixed with {@code loadtest.app.} are handed to the application as-is, e.g.
+     * {@code -Ploadtest.app.spring.threads.virtual.enabled=true}.
+     */
+    public Map<String, String> applicationOverrides() {
+        Map<String, String> overrides = new LinkedHashMap<>();
+        properties.stringPropertyNames().stream()
+                .filter(name -> name.startsWith(APP_PREFIX))
+                .sorted()
+                .forEach(name -> overrides.put(name.substring(APP_PREFIX.length()), properties.getProperty(name)));
+        return overrides;
+    }
+
+    public String reportDir() {
+        return properties.getProperty("loadtest.report-dir", "build/reports/loadtest");
+    }
+
+    private int intValue(String name, int defaultValue) {
+        String value = properties.getProperty(name);
+        return value == null || value.isBlank() ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    private double doubleValue(String name, double defaultValue) {
+        String value = properties.getProperty(name);
+        return value == null || value.isBlank() ? defaultValue : Double.parseDouble(value.trim());
+    }
+}
@@ -0,0 +1,123 @@
+package com.eevan.bankingservice.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Issues requests on a fixed schedule regardless of how fast responses come back. Latency is
+ * measured from the time a request was due to be sent, not the time it was actually sent, so a
+ * stalled server shows up in the histograms instead of silently lowering the offered load.
+ * Requests still unanswered when the drain period ends are recorded as errors with the latency they
+ * had reached by then, so the slowest requests are not dropped from the tail.
+ */
+public class OpenLoopWorkload {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final long DRAIN_SECONDS = 30;
+
+    private final HttpClient httpClient;
+    private final Function<Operation, HttpRequest> requests;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final Map<Long, InFlightRequest> inFlight = new ConcurrentHashMap<>();
+
+    public OpenLoopWorkload(HttpClient httpClient, Map<Operation, Integer> mix,
+                            Function<Operation, HttpRequest> requests) {
+        this.httpClient = httpClient;
+        this.requests = requests;
+        this.operations = mix.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+        for (Operation operation : operations) {
+            histograms.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    public LoadTestResult run(double requestsPerSecond, long warmupSeconds, long durationSeconds)
+            throws InterruptedException {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            while (wait > 0) {
+                LockSupport.parkNanos(wait);
+                wait = intended - System.nanoTime();
+            }
+            send(i, new InFlightRequest(pick(), intended, intended >= measureFrom));
+        }
+
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DRAIN_SECONDS);
+        while (!inFlight.isEmpty() && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        long timedOutAt = System.nanoTime();
+        for (Long sequence : inFlight.keySet()) {
+            InFlightRequest request = inFlight.remove(sequence);
+            if (request != null) {
+                record(request, timedOutAt, true);
+            }
+        }
+        return new LoadTestResult(histograms, errors, durationSeconds);
+    }
+
+    private void send(long sequence, InFlightRequest request) {
+        inFlight.put(sequence, request);
+        httpClient.sendAsync(requests.apply(request.operation()), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, failure) -> {
+                    if (inFlight.remove(sequence) != null) {
+                        record(request, System.nanoTime(), failure != null || response.statusCode() >= 300);
+                    }
+                });
+    }
+
+    private void record(InFlightRequest request, long completedAt, boolean failed) {
+        if (!request.measured()) {
+            return;
+        }
+        long latencyMicros = TimeUnit.NANOSECONDS.toMicros(completedAt - request.intended());
+        histograms.get(request.operation()).recordValue(Math.min(Math.max(latencyMicros, 1),
+                HIGHEST_TRACKABLE_MICROS));
+        if (failed) {
+            errors.get(request.operation()).increment();
+        }
+    }
+
+    private Operation pick() {
+        int roll = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private record InFlightRequest(Operation operation, long intended, boolean measured) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.eevan.bankingservice.loadtest;
+
+public enum Operation {
+    SIGN_UP("sign-up"),
+    SIGN_IN("sign-in"),
+    SEARCH("search"),
+    TRANSFER("transfer");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+}
@@ -1,9 +1,7 @@
 package com.eevan.bankingservice;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.Bean;
 
 @SpringBootApplication
 public class BankingServiceApplication {
@@ -11,9 +9,4 @@ public class BankingServiceApplication {
 	public static void main(String[] args) {
 		SpringApplication.run(BankingServiceApplication.class, args);
 	}
-
-	@Bean
-	public ModelMapper modelMapper() {
-		return new ModelMapper();
-	}
 }
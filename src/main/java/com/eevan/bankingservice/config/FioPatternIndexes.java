@@ -0,0 +1,44 @@
+package com.eevan.bankingservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Creates the {@code varchar_pattern_ops} indexes behind the FIO prefix filters of the client search. A plain
+ * btree index serves {@code LIKE 'prefix%'} only under the C collation, and JPA {@code @Index} cannot declare an
+ * operator class, so they are created here once Hibernate has updated the schema. The build is concurrent so it
+ * does not block writes to clients on a large table; a node that loses the race to another one only logs it.
+ */
+@Slf4j
+@Component
+public class FioPatternIndexes {
+
+    static final List<String> STATEMENTS = List.of("surname", "name", "patronymic").stream()
+            .map(column -> "CREATE INDEX CONCURRENTLY IF NOT EXISTS clients_" + column + "_pattern_idx " +
+                    "ON clients (" + column + " varchar_pattern_ops)")
+            .toList();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public FioPatternIndexes(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void create() {
+        for (String statement : STATEMENTS) {
+            try {
+                jdbcTemplate.execute(statement);
+            } catch (DataAccessException e) {
+                log.warn("Could not create FIO pattern index: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.eevan.bankingservice.config;
+
+import com.eevan.bankingservice.security.JwtService;
+import com.eevan.bankingservice.services.ClientCache;
+import com.eevan.bankingservice.services.ClientService;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfiguration {
+
+    @Bean
+    public MeterBinder cacheMetrics(JwtService jwtService, ClientService clientService, ClientCache clientCache) {
+        return registry -> {
+            CaffeineCacheMetrics.monitor(registry, clientCache.clientsById(), "clients.by-id");
+            CaffeineCacheMetrics.monitor(registry, clientCache.idsByEmail(), "clients.by-email");
+            CaffeineCacheMetrics.monitor(registry, clientCache.idsByPhone(), "clients.by-phone");
+            CaffeineCacheMetrics.monitor(registry, jwtService.tokenCache(), "jwt.tokens");
+            CaffeineCacheMetrics.monitor(registry, clientService.principalCache(), "principals");
+        };
+    }
+}
@@ -0,0 +1,132 @@
+package com.eevan.bankingservice.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Sends connections of read-only transactions to a replica pool and everything else to the primary.
+ * It has to sit behind a {@code LazyConnectionDataSourceProxy}: the transaction manager asks for a
+ * connection before the read-only flag is bound, so without the proxy every transaction would be
+ * routed as read-write.
+ * <p>
+ * Replicas that stop answering or fall behind by more than {@code maxLagMillis} are taken out of
+ * rotation by the periodic lag check; with none left, reads go to the primary.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final String PRIMARY = "primary";
+    private static final String LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery() " +
+            "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE CAST(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 AS bigint) END";
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private final Map<String, DataSource> replicas;
+    private final long maxLagMillis;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Counter primaryRoutes;
+    private final Counter replicaRoutes;
+    private volatile List<String> healthyReplicas;
+
+    public ReadWriteRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, long maxLagMillis,
+                                      MeterRegistry meterRegistry) {
+        this.replicas = replicas;
+        this.maxLagMillis = maxLagMillis;
+        this.healthyReplicas = List.copyOf(replicas.keySet());
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+
+        this.primaryRoutes = routeCounter(PRIMARY, meterRegistry);
+        this.replicaRoutes = routeCounter("replica", meterRegistry);
+        Gauge.builder("datasource.replicas.healthy", this, dataSource -> dataSource.healthyReplicas.size())
+                .description("Replicas currently receiving read-only transactions")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code action} with any read-only transaction it opens routed to the primary.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        Boolean previous = PRIMARY_REQUIRED.get();
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_REQUIRED.remove();
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        List<String> healthy = healthyReplicas;
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || PRIMARY_REQUIRED.get() != null
+                || healthy.isEmpty()) {
+            primaryRoutes.increment();
+            return PRIMARY;
+        }
+        replicaRoutes.increment();
+        return healthy.get(Math.floorMod(nextReplica.getAndIncrement(), healthy.size()));
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replicas.lag-check-interval-ms:5000}")
+    public void checkReplicas() {
+        List<String> healthy = new ArrayList<>();
+        replicas.forEach((name, dataSource) -> {
+            Long lag = lagMillis(name, dataSource);
+            if (lag != null && lag <= maxLagMillis) {
+                healthy.add(name);
+            } else if (lag != null) {
+                log.warn("Replica {} is {} ms behind the primary", name, lag);
+            }
+        });
+        if (!healthy.equals(healthyReplicas)) {
+            log.warn("Replicas in rotation changed from {} to {}", healthyReplicas, healthy);
+        }
+        healthyReplicas = List.copyOf(healthy);
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private Long lagMillis(String name, DataSource dataSource) {
+        try {
+            return new JdbcTemplate(dataSource).queryForObject(LAG_QUERY, Long.class);
+        } catch (DataAccessException e) {
+            log.warn("Lag check of replica {} failed: {}", name, e.getMessage());
+            return null;
+        }
+    }
+
+    private static Counter routeCounter(String target, MeterRegistry meterRegistry) {
+        return Counter.builder("datasource.routing")
+                .description("Connections handed out by target")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+}
@@ -4,12 +4,17 @@ import com.eevan.bankingservice.dto.ClientSignInRequestDto;
 import com.eevan.bankingservice.dto.ClientSignUpRequestDto;
 import com.eevan.bankingservice.dto.JwtAuthenticationResponseDto;
 import com.eevan.bankingservice.security.AuthenticationService;
+import com.eevan.bankingservice.utils.ClientErrorResponse;
+import com.eevan.bankingservice.utils.PasswordHashingRejectedException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -27,7 +32,8 @@ public class AuthController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Client has created"),
             @ApiResponse(responseCode = "400", description = "Not all the necessary fields are filled"),
-            @ApiResponse(responseCode = "500", description = "Not all the necessary fields are present in DTO or has correct values")
+            @ApiResponse(responseCode = "500", description = "Not all the necessary fields are present in DTO or has correct values"),
+            @ApiResponse(responseCode = "503", description = "Too many sign-in and sign-up requests at the moment")
     })
     @PostMapping("/sign-up")
     public JwtAuthenticationResponseDto signUp(@RequestBody @Valid ClientSignUpRequestDto request) {
@@ -39,10 +45,17 @@ public class AuthController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Client has created"),
             @ApiResponse(responseCode = "400", description = "Not all the necessary fields are filled"),
-            @ApiResponse(responseCode = "500", description = "Not all the necessary fields are present in DTO or has correct values")
+            @ApiResponse(responseCode = "500", description = "Not all the necessary fields are present in DTO or has correct values"),
+            @ApiResponse(responseCode = "503", description = "Too many sign-in and sign-up requests at the moment")
     })
     @PostMapping("/sign-in")
     public JwtAuthenticationResponseDto signIn(@RequestBody @Valid ClientSignInRequestDto request) {
         return authenticationService.signIn(request);
     }
+
+    @ExceptionHandler
+    private ResponseEntity<ClientErrorResponse> handleException(PasswordHashingRejectedException e) {
+        ClientErrorResponse response = new ClientErrorResponse(e.getMessage(), System.currentTimeMillis());
+        return new ResponseEntity<>(response, HttpStatus.SERVICE_UNAVAILABLE);
+    }
 }
@@ -2,27 +2,56 @@ package com.eevan.bankingservice.controllers;
 
 import com.eevan.bankingservice.dto.ClientDto;
 import com.eevan.bankingservice.dto.ClientEmailDto;
+import com.eevan.bankingservice.dto.ClientExportDto;
+import com.eevan.bankingservice.dto.ClientImportReportDto;
+import com.eevan.bankingservice.dto.ClientPageDto;
 import com.eevan.bankingservice.dto.ClientPhoneDto;
+import com.eevan.bankingservice.dto.ClientSearchRequestDto;
+import com.eevan.bankingservice.dto.TransferBatchRequestDto;
+import com.eevan.bankingservice.dto.TransferBatchResponseDto;
+import com.eevan.bankingservice.dto.TransferStatus;
 import com.eevan.bankingservice.entities.Client;
+import com.eevan.bankingservice.mappers.ClientMapper;
+import com.eevan.bankingservice.services.BalanceStream;
+import com.eevan.bankingservice.services.ClientImportService;
+import com.eevan.bankingservice.services.ClientPage;
 import com.eevan.bankingservice.services.ClientService;
+import com.eevan.bankingservice.services.TransferPipeline;
+import com.eevan.bankingservice.services.TransferService;
+import com.eevan.bankingservice.utils.BalanceStreamRejectedException;
 import com.eevan.bankingservice.utils.ClientErrorResponse;
 import com.eevan.bankingservice.utils.ClientNotCreatedException;
 import com.eevan.bankingservice.utils.ClientNotFoundException;
+import com.eevan.bankingservice.utils.IdempotencyKeyConflictException;
+import com.eevan.bankingservice.utils.InvalidCursorException;
+import com.eevan.bankingservice.utils.InvalidSearchRequestException;
+import com.eevan.bankingservice.utils.TransferRejectedException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @RestController
@@ -30,8 +59,19 @@ import java.util.stream.Collectors;
 @RequestMapping("/api")
 public class ClientController {
 
+    private static final int MAX_PAGE_LIMIT = 1000;
+    private static final int EXPORT_FLUSH_INTERVAL = 1000;
+    private static final long EXPORT_TIMEOUT_MILLIS = 3_600_000;
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String CSV = "text/csv";
+
     private final ClientService clientService;
-    private final ModelMapper modelMapper;
+    private final TransferService transferService;
+    private final TransferPipeline transferPipeline;
+    private final ClientImportService clientImportService;
+    private final BalanceStream balanceStream;
+    private final ClientMapper clientMapper;
+    private final ObjectMapper objectMapper;
 
     @Operation(summary = "Change a main phone number", description = "Here you can change a main number of client",
             tags = {"client"})
@@ -108,6 +148,16 @@ public class ClientController {
                 .collect(Collectors.toList());
     }
 
+    @Operation(summary = "Get clients by date of birth page by page",
+            description = "Here you can walk through clients by date of birth with a continuation token",
+            tags = {"client"})
+    @GetMapping("/clients/birthdate")
+    public ClientPageDto getClientsByBirthdate(@RequestParam @DateTimeFormat(pattern = "dd/MM/yyyy") LocalDate birthdate,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(defaultValue = "20") int limit) {
+        return convertToClientPageDTO(clientService.findClientByBirthdate(birthdate, cursor, pageLimit(limit)));
+    }
+
     @Operation(summary = "Get a client by phone number", description = "Here you can find a client by phone number",
             tags = {"client"})
     @GetMapping("/clients/phone")
@@ -129,23 +179,121 @@ public class ClientController {
                 .collect(Collectors.toList());
     }
 
+    @Operation(summary = "Get clients by name, surname and patronymic page by page",
+            description = "Here you can walk through clients by name, surname and patronymic with a continuation token",
+            tags = {"client"})
+    @GetMapping("/clients/person")
+    public ClientPageDto getClientsByFIO(@RequestParam String name,
+                                         @RequestParam String surname,
+                                         @RequestParam String patronymic,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "20") int limit) {
+        return convertToClientPageDTO(clientService.findClientByFIO(name, surname, patronymic, cursor,
+                pageLimit(limit)));
+    }
+
+    @Operation(summary = "Search clients",
+            description = "Here you can find clients by any combination of date of birth, phone, email and FIO prefixes",
+            tags = {"client"})
+    @GetMapping("/clients/search")
+    public List<ClientDto> searchClients(@ParameterObject ClientSearchRequestDto request) {
+        return clientService.findClients(request)
+                .stream()
+                .map(this::convertToClientDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Streams every client from a worker thread. The export can run far longer than other async requests, so
+     * it carries its own timeout instead of raising the global one.
+     */
+    @Operation(summary = "Export all clients",
+            description = "Here administrators can download all clients as newline-delimited JSON", tags = {"client"})
+    @GetMapping(value = "/clients/export", produces = NDJSON)
+    public WebAsyncTask<Void> exportClients(HttpServletResponse response) {
+        response.setContentType(NDJSON);
+        return new WebAsyncTask<>(EXPORT_TIMEOUT_MILLIS, () -> {
+            try (SequenceWriter writer = objectMapper.writerFor(ClientExportDto.class)
+                    .withRootValueSeparator("\n")
+                    .writeValues(response.getOutputStream())) {
+                int[] written = {0};
+                clientService.exportClients(client -> {
+                    try {
+                        writer.write(clientMapper.toExportDto(client));
+                        if (++written[0] % EXPORT_FLUSH_INTERVAL == 0) {
+                            writer.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            return null;
+        });
+    }
+
+    @Operation(summary = "Import clients",
+            description = "Here administrators can create many clients from a CSV file with a header or from newline-delimited " +
+                    "JSON; bad lines are reported and skipped", tags = {"client"})
+    @PostMapping(value = "/clients/import", consumes = {CSV, NDJSON})
+    public ClientImportReportDto importClients(InputStream body,
+                                               @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                               @RequestParam(defaultValue = "false") boolean passwordsHashed)
+            throws IOException {
+        ClientImportService.Format format = MediaType.parseMediaType(contentType).isCompatibleWith(
+                MediaType.parseMediaType(CSV)) ? ClientImportService.Format.CSV : ClientImportService.Format.NDJSON;
+        return clientImportService.importClients(body, format, passwordsHashed);
+    }
+
+    @Operation(summary = "Stream balance changes",
+            description = "Here you can subscribe to server-sent events with the balance of the authenticated client " +
+                    "instead of polling it", tags = {"client"})
+    @GetMapping(value = "/client/balance/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBalance() {
+        return balanceStream.subscribe(clientService.getCurrentClient().getId());
+    }
+
     @Operation(summary = "Transfer money to another client", tags = { "client" })
     @PostMapping("/transfer")
-    public String transferMoney(
+    public CompletableFuture<String> transferMoney(
             @RequestParam Long fromAccountId,
             @RequestParam Long toAccountId,
-            @RequestParam double amount) {
-        clientService.transferMoney(fromAccountId, toAccountId, amount);
-        return "Transfer successful";
+            @RequestParam double amount,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return transferPipeline.submit(fromAccountId, toAccountId, amount, idempotencyKey)
+                .thenApply(result -> {
+                    if (result.getStatus() != TransferStatus.COMPLETED) {
+                        throw new IllegalArgumentException(result.getMessage());
+                    }
+                    return "Transfer successful";
+                });
+    }
+
+    @Operation(summary = "Transfer money in a batch",
+            description = "Here you can apply many transfers at once, atomically or one by one", tags = { "client" })
+    @PostMapping("/transfers/batch")
+    public TransferBatchResponseDto transferMoneyBatch(@RequestBody @Valid TransferBatchRequestDto request) {
+        return transferService.transferBatch(request);
     }
 
     private Client convertToClient(ClientDto clientDTO) {
-        ModelMapper modelMapper = new ModelMapper();
-        return modelMapper.map(clientDTO, Client.class);
+        return clientMapper.toEntity(clientDTO);
     }
 
     private ClientDto convertToClientDTO(Client client) {
-        return modelMapper.map(client, ClientDto.class);
+        return clientMapper.toDto(client);
+    }
+
+    private ClientPageDto convertToClientPageDTO(ClientPage page) {
+        List<ClientDto> clients = page.clients()
+                .stream()
+                .map(this::convertToClientDTO)
+                .collect(Collectors.toList());
+        return new ClientPageDto(clients, page.nextCursor());
+    }
+
+    private int pageLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_LIMIT));
     }
 
     @ExceptionHandler
@@ -154,12 +302,42 @@ public class ClientController {
         return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler
+    private ResponseEntity<ClientErrorResponse> handleException(InvalidCursorException e) {
+        ClientErrorResponse response = new ClientErrorResponse("Invalid cursor!", System.currentTimeMillis());
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler
+    private ResponseEntity<ClientErrorResponse> handleException(InvalidSearchRequestException e) {
+        ClientErrorResponse response = new ClientErrorResponse(e.getMessage(), System.currentTimeMillis());
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler
     private ResponseEntity<ClientErrorResponse> handleException(ClientNotCreatedException e) {
         ClientErrorResponse response = new ClientErrorResponse(e.getMessage(), System.currentTimeMillis());
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler
+    private ResponseEntity<ClientErrorResponse> handleException(IdempotencyKeyConflictException e) {
+        ClientErrorResponse response = new ClientErrorResponse(e.getMessage(), System.currentTimeMillis());
+        return new ResponseEntity<>(response, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @ExceptionHandler
+    private ResponseEntity<ClientErrorResponse> handleException(TransferRejectedException e) {
+        ClientErrorResponse response = new ClientErrorResponse(e.getMessage(), System.currentTimeMillis());
+        return new ResponseEntity<>(response, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler
+    private ResponseEntity<ClientErrorResponse> handleException(BalanceStreamRejectedException e) {
+        ClientErrorResponse response = new ClientErrorResponse(e.getMessage(), System.currentTimeMillis());
+        return new ResponseEntity<>(response, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     private void ErrorClientCreatingExceptionThrow(BindingResult bindingResult) {
         if (bindingResult.hasErrors()) {
             StringBuilder errorMessage = new StringBuilder();
@@ -0,0 +1,18 @@
+package com.eevan.bankingservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(description = "Balance change event DTO")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceEventDto {
+    @Schema(description = "Client's id")
+    private Long clientId;
+
+    @Schema(description = "Client's balance after the latest change")
+    private double balance;
+}
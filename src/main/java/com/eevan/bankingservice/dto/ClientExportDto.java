@@ -0,0 +1,48 @@
+package com.eevan.bankingservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+@Schema(description = "Client's export record, without credentials")
+@Getter
+@Setter
+public class ClientExportDto {
+
+    @Schema(description = "Client's id")
+    private Long id;
+
+    @Schema(description = "Client's login")
+    private String login;
+
+    @Schema(description = "Client's name")
+    private String name;
+
+    @Schema(description = "Client's surname")
+    private String surname;
+
+    @Schema(description = "Client's patronymic if exists")
+    private String patronymic;
+
+    @Schema(description = "Client's date of birth")
+    @JsonFormat(pattern = "dd/MM/yyyy", shape = JsonFormat.Shape.STRING)
+    private LocalDate dateOfBirth;
+
+    @Schema(description = "Client's main phone number")
+    private String phoneNumberMain;
+
+    @Schema(description = "Client's additional phone number if exists")
+    private String phoneNumberAdditional;
+
+    @Schema(description = "Client's email")
+    private String emailMain;
+
+    @Schema(description = "Client's additional email if exists")
+    private String emailAdditional;
+
+    @Schema(description = "Client's initial deposit")
+    private Double initialBalance;
+}
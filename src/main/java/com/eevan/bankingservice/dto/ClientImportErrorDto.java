@@ -0,0 +1,21 @@
+package com.eevan.bankingservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(description = "Rejected line of a client import")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientImportErrorDto {
+    @Schema(description = "Line number in the uploaded file, starting from 1")
+    private long line;
+
+    @Schema(description = "Login from the line if it could be read")
+    private String login;
+
+    @Schema(description = "Why the line was rejected")
+    private String message;
+}
@@ -0,0 +1,29 @@
+package com.eevan.bankingservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Schema(description = "Client import report DTO")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientImportReportDto {
+    @Schema(description = "Number of client lines read")
+    private long lines;
+
+    @Schema(description = "Number of clients created")
+    private long imported;
+
+    @Schema(description = "Number of lines rejected")
+    private long rejected;
+
+    @Schema(description = "Rejected lines, at most client-import.max-reported-errors of them")
+    private List<ClientImportErrorDto> errors;
+
+    @Schema(description = "Whether more lines were rejected than listed in errors")
+    private boolean errorsTruncated;
+}
@@ -0,0 +1,20 @@
+package com.eevan.bankingservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Schema(description = "Page of clients DTO")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientPageDto {
+    @Schema(description = "Clients of the page")
+    private List<ClientDto> clients;
+
+    @Schema(description = "Token to request the next page with. Absent on the last page")
+    private String nextCursor;
+}
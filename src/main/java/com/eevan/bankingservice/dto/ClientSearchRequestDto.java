@@ -0,0 +1,45 @@
+package com.eevan.bankingservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+@Schema(description = "Client's search DTO. Every filter is optional, given filters are combined")
+@Getter
+@Setter
+public class ClientSearchRequestDto {
+    @Schema(description = "Clients born after this date")
+    @DateTimeFormat(pattern = "dd/MM/yyyy")
+    private LocalDate birthdate;
+
+    @Schema(description = "Main or additional phone number, exact match")
+    private String phoneNumber;
+
+    @Schema(description = "Main or additional email, exact match")
+    private String email;
+
+    @Schema(description = "Surname prefix")
+    private String surname;
+
+    @Schema(description = "Name prefix")
+    private String name;
+
+    @Schema(description = "Patronymic prefix")
+    private String patronymic;
+
+    @Schema(description = "Sort field: id, surname, name, patronymic or dateOfBirth")
+    private String sortBy = "id";
+
+    @Schema(description = "Sort direction")
+    private Sort.Direction direction = Sort.Direction.ASC;
+
+    @Schema(description = "Page number starting from 0")
+    private int page = 0;
+
+    @Schema(description = "Page size")
+    private int size = 20;
+}
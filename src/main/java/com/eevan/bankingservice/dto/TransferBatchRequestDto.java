@@ -0,0 +1,24 @@
+package com.eevan.bankingservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Schema(description = "Batch of transfers DTO")
+@Data
+public class TransferBatchRequestDto {
+    @Schema(description = "Payer's account id for every transfer that does not set its own. Not necessary field")
+    private Long fromAccountId;
+
+    @Schema(description = "Apply all transfers or none of them. Otherwise every transfer is applied on its own")
+    private boolean atomic;
+
+    @Schema(description = "Transfers to apply in the given order")
+    @NotEmpty(message = "Transfers should not be empty")
+    @Size(max = 5000, message = "Batch should contain at most 5000 transfers")
+    private List<@Valid TransferRequestDto> transfers;
+}
@@ -0,0 +1,20 @@
+package com.eevan.bankingservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Schema(description = "Batch transfer results DTO")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferBatchResponseDto {
+    @Schema(description = "Number of applied transfers")
+    private int completed;
+
+    @Schema(description = "Results in the same order as the requested transfers")
+    private List<TransferResultDto> results;
+}
@@ -0,0 +1,25 @@
+package com.eevan.bankingservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(description = "Single transfer DTO")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferRequestDto {
+    @Schema(description = "Payer's account id. Not necessary if set for the whole batch")
+    private Long fromAccountId;
+
+    @Schema(description = "Payee's account id")
+    @NotNull(message = "Payee account should not be empty")
+    private Long toAccountId;
+
+    @Schema(description = "Amount to transfer")
+    @Positive(message = "Amount should be positive")
+    private double amount;
+}
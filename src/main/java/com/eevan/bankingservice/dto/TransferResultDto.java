@@ -0,0 +1,27 @@
+package com.eevan.bankingservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(description = "Result of a single transfer in a batch")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferResultDto {
+    @Schema(description = "Payer's account id")
+    private Long fromAccountId;
+
+    @Schema(description = "Payee's account id")
+    private Long toAccountId;
+
+    @Schema(description = "Amount to transfer")
+    private double amount;
+
+    @Schema(description = "Transfer's outcome")
+    private TransferStatus status;
+
+    @Schema(description = "Reason of the failure if the transfer was not applied")
+    private String message;
+}
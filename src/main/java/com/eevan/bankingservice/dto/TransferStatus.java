@@ -0,0 +1,11 @@
+package com.eevan.bankingservice.dto;
+
+public enum TransferStatus {
+    COMPLETED,
+    SAME_CLIENT,
+    CLIENT_NOT_FOUND,
+    INSUFFICIENT_BALANCE,
+    INVALID_AMOUNT,
+    ROLLED_BACK,
+    IDEMPOTENCY_KEY_CONFLICT
+}
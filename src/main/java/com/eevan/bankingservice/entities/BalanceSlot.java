@@ -0,0 +1,32 @@
+package com.eevan.bankingservice.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "balance_slots",
+        uniqueConstraints = @UniqueConstraint(name = "balance_slots_client_slot_uq",
+                columnNames = {"client_id", "slot"}))
+public class BalanceSlot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "client_id", nullable = false)
+    private Long clientId;
+
+    @Column(name = "slot", nullable = false)
+    private Integer slot;
+
+    @Column(name = "amount", nullable = false)
+    private Double amount;
+}
@@ -0,0 +1,37 @@
+package com.eevan.bankingservice.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "balance_snapshots",
+        indexes = @Index(name = "balance_snapshots_client_idx", columnList = "client_id, id"))
+public class BalanceSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "balance_snapshots_seq")
+    @SequenceGenerator(name = "balance_snapshots_seq", sequenceName = "balance_snapshots_seq", allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "client_id", nullable = false)
+    private Long clientId;
+
+    @Column(name = "balance", nullable = false)
+    private Double balance;
+
+    @Column(name = "folded_amount", nullable = false)
+    private Double foldedAmount;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
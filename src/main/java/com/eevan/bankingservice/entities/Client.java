@@ -22,7 +22,10 @@ import java.util.Collection;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "Clients")
+@Table(name = "Clients", indexes = {
+        @Index(name = "clients_birth_date_id_idx", columnList = "birth_date, id"),
+        @Index(name = "clients_surname_id_idx", columnList = "surname, id")
+})
 public class Client implements UserDetails {
 
     @Id
@@ -31,7 +34,7 @@ public class Client implements UserDetails {
     private Long id;
 
     @NotEmpty(message = "Login should not be empty")
-    @Column(name = "login")
+    @Column(name = "login", unique = true)
     private String login;
 
     @NotEmpty(message = "Password should not be empty")
@@ -78,6 +81,9 @@ public class Client implements UserDetails {
     @Column(name = "current_balance")
     private Double currentBalance;
 
+    @Column(name = "accrual_period")
+    private Long accrualPeriod;
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return null;
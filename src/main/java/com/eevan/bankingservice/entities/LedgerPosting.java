@@ -0,0 +1,40 @@
+package com.eevan.bankingservice.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "ledger_postings",
+        indexes = @Index(name = "ledger_postings_client_folded_idx", columnList = "client_id, folded"))
+public class LedgerPosting {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ledger_postings_seq")
+    @SequenceGenerator(name = "ledger_postings_seq", sequenceName = "ledger_postings_seq", allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "client_id", nullable = false)
+    private Long clientId;
+
+    @Column(name = "counterparty_id", nullable = false)
+    private Long counterpartyId;
+
+    @Column(name = "amount", nullable = false)
+    private Double amount;
+
+    @Column(name = "folded", nullable = false)
+    private boolean folded;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
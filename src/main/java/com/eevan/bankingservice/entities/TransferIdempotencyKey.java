@@ -0,0 +1,51 @@
+package com.eevan.bankingservice.entities;
+
+import com.eevan.bankingservice.dto.TransferStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "transfer_idempotency_keys",
+        uniqueConstraints = @UniqueConstraint(name = "transfer_idempotency_keys_payer_key_uq",
+                columnNames = {"payer_id", "idempotency_key"}),
+        indexes = @Index(name = "transfer_idempotency_keys_created_at_idx", columnList = "created_at"))
+public class TransferIdempotencyKey {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transfer_idempotency_keys_seq")
+    @SequenceGenerator(name = "transfer_idempotency_keys_seq", sequenceName = "transfer_idempotency_keys_seq",
+            allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "payer_id", nullable = false)
+    private Long payerId;
+
+    @Column(name = "idempotency_key", nullable = false)
+    private String idempotencyKey;
+
+    @Column(name = "to_account_id")
+    private Long toAccountId;
+
+    @Column(name = "amount", nullable = false)
+    private Double amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private TransferStatus status;
+
+    @Column(name = "message")
+    private String message;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,29 @@
+package com.eevan.bankingservice.mappers;
+
+import com.eevan.bankingservice.dto.ClientDto;
+import com.eevan.bankingservice.dto.ClientExportDto;
+import com.eevan.bankingservice.dto.ClientSignUpRequestDto;
+import com.eevan.bankingservice.entities.Client;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface ClientMapper {
+
+    ClientDto toDto(Client client);
+
+    ClientExportDto toExportDto(Client client);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "currentBalance", ignore = true)
+    @Mapping(target = "accrualPeriod", ignore = true)
+    Client toEntity(ClientDto clientDto);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "password", ignore = true)
+    @Mapping(target = "phoneNumberAdditional", ignore = true)
+    @Mapping(target = "emailAdditional", ignore = true)
+    @Mapping(target = "currentBalance", source = "initialBalance")
+    @Mapping(target = "accrualPeriod", ignore = true)
+    Client toEntity(ClientSignUpRequestDto request);
+}
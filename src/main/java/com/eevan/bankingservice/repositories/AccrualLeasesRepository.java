@@ -0,0 +1,50 @@
+package com.eevan.bankingservice.repositories;
+
+import com.eevan.bankingservice.entities.AccrualLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface AccrualLeasesRepository extends JpaRepository<AccrualLease, Long> {
+
+    @Query(value = "SELECT CAST(extract(epoch FROM clock_timestamp()) * 1000 AS bigint)", nativeQuery = true)
+    long currentTimeMillis();
+
+    @Modifying
+    @Query(value = "INSERT INTO accrual_leases (accrual_period, range_start, range_end, completed) " +
+            "SELECT :period, s, s + :rangeSize, false FROM generate_series(0, :maxClientId, :rangeSize) s " +
+            "ON CONFLICT (accrual_period, range_start) DO NOTHING", nativeQuery = true)
+    int planRanges(long period, long maxClientId, long rangeSize);
+
+    /**
+     * Claims a free or expired range of this or an earlier period, oldest first. A range is not handed out
+     * while an older lease over the same ids is still open, so missed periods are accrued before later ones
+     * stamp the rows.
+     */
+    @Query(value = "UPDATE accrual_leases SET owner = :owner, lease_until = now() + :leaseSeconds * interval '1 second' " +
+            "WHERE id = (SELECT l.id FROM accrual_leases l WHERE l.accrual_period <= :period AND NOT l.completed " +
+            "AND (l.lease_until IS NULL OR l.lease_until < now()) AND NOT EXISTS (SELECT 1 FROM accrual_leases o " +
+            "WHERE o.accrual_period < l.accrual_period AND NOT o.completed " +
+            "AND o.range_start < l.range_end AND l.range_start < o.range_end) " +
+            "ORDER BY l.accrual_period, l.range_start LIMIT 1 FOR UPDATE OF l SKIP LOCKED) " +
+            "RETURNING *", nativeQuery = true)
+    Optional<AccrualLease> claimNext(long period, String owner, int leaseSeconds);
+
+    @Modifying
+    @Query(value = "UPDATE accrual_leases SET lease_until = now() + :leaseSeconds * interval '1 second' " +
+            "WHERE id = :id AND owner = :owner AND NOT completed", nativeQuery = true)
+    int renew(long id, String owner, int leaseSeconds);
+
+    @Modifying
+    @Query(value = "UPDATE accrual_leases SET completed = true, lease_until = now() " +
+            "WHERE id = :id AND owner = :owner", nativeQuery = true)
+    int complete(long id, String owner);
+
+    @Modifying
+    @Query("delete from AccrualLease l where l.period < :period and l.completed = true")
+    int deleteCompletedByPeriodBefore(long period);
+}
@@ -0,0 +1,36 @@
+package com.eevan.bankingservice.repositories;
+
+import com.eevan.bankingservice.entities.BalanceSlot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BalanceSlotsRepository extends JpaRepository<BalanceSlot, Long> {
+
+    @Query("select s.clientId as clientId, sum(s.amount) as amount from BalanceSlot s " +
+            "where s.clientId in :clientIds group by s.clientId")
+    List<PendingAmount> findSlotTotals(Collection<Long> clientIds);
+
+    @Modifying
+    @Query(value = "INSERT INTO balance_slots (client_id, slot, amount) VALUES (:clientId, :slot, :amount) " +
+            "ON CONFLICT (client_id, slot) DO UPDATE SET amount = balance_slots.amount + EXCLUDED.amount",
+            nativeQuery = true)
+    int credit(long clientId, int slot, double amount);
+
+    /**
+     * Zeroes the slots and returns what they held. RETURNING yields the updated row, so the old amounts are
+     * taken from the locked rows of {@code held}.
+     */
+    @Query(value = "WITH held AS (SELECT id, amount FROM balance_slots " +
+            "WHERE client_id IN (:clientIds) AND amount <> 0 FOR UPDATE), " +
+            "drained AS (UPDATE balance_slots s SET amount = 0 FROM held WHERE s.id = held.id " +
+            "RETURNING s.client_id, held.amount) " +
+            "SELECT client_id AS \"clientId\", SUM(amount) AS \"amount\" FROM drained GROUP BY client_id",
+            nativeQuery = true)
+    List<PendingAmount> drain(Collection<Long> clientIds);
+}
@@ -0,0 +1,9 @@
+package com.eevan.bankingservice.repositories;
+
+import com.eevan.bankingservice.entities.BalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BalanceSnapshotsRepository extends JpaRepository<BalanceSnapshot, Long> {
+}
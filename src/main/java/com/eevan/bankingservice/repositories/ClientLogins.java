@@ -0,0 +1,7 @@
+package com.eevan.bankingservice.repositories;
+
+public interface ClientLogins {
+    Long getId();
+
+    String getLogin();
+}
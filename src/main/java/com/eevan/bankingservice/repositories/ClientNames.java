@@ -0,0 +1,11 @@
+package com.eevan.bankingservice.repositories;
+
+public interface ClientNames {
+    Long getId();
+
+    String getName();
+
+    String getSurname();
+
+    String getPatronymic();
+}
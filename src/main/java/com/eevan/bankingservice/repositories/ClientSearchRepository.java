@@ -0,0 +1,16 @@
+package com.eevan.bankingservice.repositories;
+
+import com.eevan.bankingservice.entities.Client;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface ClientSearchRepository {
+
+    /**
+     * One page of the filtered clients without the {@code COUNT(*)} that a {@code Page} query runs over the
+     * whole filtered set.
+     */
+    List<Client> findSlice(Specification<Client> specification, Sort sort, long offset, int limit);
+}
@@ -0,0 +1,42 @@
+package com.eevan.bankingservice.repositories;
+
+import com.eevan.bankingservice.entities.Client;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+public final class ClientSpecifications {
+
+    private ClientSpecifications() {
+    }
+
+    public static Specification<Client> bornAfter(LocalDate birthdate) {
+        return (root, query, cb) -> cb.greaterThan(root.get("dateOfBirth"), birthdate);
+    }
+
+    public static Specification<Client> hasPhone(String phoneNumber) {
+        return (root, query, cb) -> cb.or(
+                cb.equal(root.get("phoneNumberMain"), phoneNumber),
+                cb.equal(root.get("phoneNumberAdditional"), phoneNumber));
+    }
+
+    public static Specification<Client> hasEmail(String email) {
+        return (root, query, cb) -> cb.or(
+                cb.equal(root.get("emailMain"), email),
+                cb.equal(root.get("emailAdditional"), email));
+    }
+
+    /**
+     * Case-sensitive {@code LIKE 'prefix%'}. The FIO columns have {@code varchar_pattern_ops} indexes (see
+     * {@code FioPatternIndexes}), so the prefix can seek an index whatever the database collation is.
+     */
+    public static Specification<Client> startsWith(String field, String prefix) {
+        return (root, query, cb) -> cb.like(root.get(field), escapeLike(prefix) + "%", '\\');
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
@@ -0,0 +1,76 @@
+package com.eevan.bankingservice.repositories;
+
+import com.eevan.bankingservice.entities.Client;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Set-based inserts for bulk onboarding. A whole batch goes to Postgres as column arrays in one
+ * statement, which keeps close to COPY speed while still letting {@code ON CONFLICT} skip rows that
+ * raced with a concurrent sign-up instead of failing the batch.
+ */
+@Repository
+public class ClientsBulkRepository {
+
+    private static final String INSERT_CLIENTS = "INSERT INTO clients (login, password, name, surname, patronymic, " +
+            "birth_date, phone_main, email_main, initial_balance, current_balance, accrual_period) " +
+            "SELECT * FROM unnest(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT DO NOTHING RETURNING login, id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ClientsBulkRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts the clients that do not collide with an existing login, phone or email.
+     *
+     * @return ids of the inserted clients by login; colliding clients are absent
+     */
+    public Map<String, Long> insertSkippingConflicts(List<Client> clients) {
+        Map<String, Long> inserted = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_CLIENTS);
+            statement.setArray(1, textArray(connection, clients, Client::getLogin));
+            statement.setArray(2, textArray(connection, clients, Client::getPassword));
+            statement.setArray(3, textArray(connection, clients, Client::getName));
+            statement.setArray(4, textArray(connection, clients, Client::getSurname));
+            statement.setArray(5, textArray(connection, clients, Client::getPatronymic));
+            statement.setArray(6, connection.createArrayOf("date", clients.stream()
+                    .map(client -> Date.valueOf(client.getDateOfBirth()))
+                    .toArray()));
+            statement.setArray(7, textArray(connection, clients, Client::getPhoneNumberMain));
+            statement.setArray(8, textArray(connection, clients, Client::getEmailMain));
+            statement.setArray(9, connection.createArrayOf("float8", clients.stream()
+                    .map(Client::getInitialBalance)
+                    .toArray()));
+            statement.setArray(10, connection.createArrayOf("float8", clients.stream()
+                    .map(Client::getCurrentBalance)
+                    .toArray()));
+            statement.setArray(11, connection.createArrayOf("int8", clients.stream()
+                    .map(Client::getAccrualPeriod)
+                    .toArray()));
+            return statement;
+        }, (RowCallbackHandler) resultSet -> inserted.put(resultSet.getString("login"), resultSet.getLong("id")));
+        return inserted;
+    }
+
+    private static Array textArray(Connection connection, List<Client> clients, Function<Client, String> column)
+            throws SQLException {
+        return connection.createArrayOf("text", clients.stream().map(column).toArray());
+    }
+}
@@ -2,17 +2,27 @@ package com.eevan.bankingservice.repositories;
 
 import com.eevan.bankingservice.entities.Client;
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ClientsRepository extends JpaRepository<Client, Integer> {
+public interface ClientsRepository extends JpaRepository<Client, Integer>, JpaSpecificationExecutor<Client>,
+        ClientSearchRepository {
     Optional<Client> findByEmailMain(String email);
 
     Optional<Client> findByPhoneNumberMainOrPhoneNumberAdditional(String phoneNumber1, String phoneNumber2);
@@ -24,9 +34,29 @@ public interface ClientsRepository extends JpaRepository<Client, Integer> {
 
     Optional<List<Client>> findByDateOfBirthAfter(LocalDate birthdate, Pageable pageable);
 
+    @Query("select c from Client c where c.dateOfBirth > :birthdate " +
+            "and (c.dateOfBirth > :lastDateOfBirth or (c.dateOfBirth = :lastDateOfBirth and c.id > :lastId)) " +
+            "order by c.dateOfBirth, c.id")
+    List<Client> findByDateOfBirthAfterKeyset(LocalDate birthdate, LocalDate lastDateOfBirth, long lastId,
+                                              Limit limit);
+
+    @Query("select c from Client c where upper(c.name) like upper(:name) and upper(c.surname) like upper(:surname) " +
+            "and upper(c.patronymic) like upper(:patronymic) " +
+            "and (c.surname > :lastSurname or (c.surname = :lastSurname and c.id > :lastId)) " +
+            "order by c.surname, c.id")
+    List<Client> findByFIOKeyset(String name, String surname, String patronymic, String lastSurname, long lastId,
+                                 Limit limit);
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     Optional<Client> findById(long id);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Client c where c.id in :ids order by c.id")
+    List<Client> findAllByIdInForUpdate(Collection<Long> ids);
+
+    @Query("select c.id from Client c where c.id in :ids")
+    List<Long> findExistingIds(Collection<Long> ids);
+
     Optional<Client> findByLogin(String login);
 
     boolean existsByLogin(String login);
@@ -35,4 +65,64 @@ public interface ClientsRepository extends JpaRepository<Client, Integer> {
 
     boolean existsByEmailMainOrEmailAdditional(String email1, String email2);
 
+    @Query("select c.login from Client c where c.login in :logins")
+    List<String> findExistingLogins(Collection<String> logins);
+
+    @Query(value = "SELECT phone_main FROM clients WHERE phone_main IN (:phoneNumbers) " +
+            "UNION SELECT phone_additional FROM clients WHERE phone_additional IN (:phoneNumbers)", nativeQuery = true)
+    List<String> findExistingPhones(Collection<String> phoneNumbers);
+
+    @Query(value = "SELECT email_main FROM clients WHERE email_main IN (:emails) " +
+            "UNION SELECT email_additional FROM clients WHERE email_additional IN (:emails)", nativeQuery = true)
+    List<String> findExistingEmails(Collection<String> emails);
+
+    <T> List<T> findByIdGreaterThanOrderById(Long id, Limit limit, Class<T> type);
+
+    List<Client> findByIdInOrderById(Collection<Long> ids);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select c from Client c order by c.id")
+    Stream<Client> streamAllByOrderById();
+
+    @Query(value = "SELECT id FROM clients WHERE id > :afterId AND current_balance < initial_balance * :cap " +
+            "ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Long> findAccrualCandidates(long afterId, double cap, int limit);
+
+    @Query(value = "SELECT id FROM clients WHERE id IN (:ids) FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockForAccrual(List<Long> ids);
+
+    @Modifying
+    @Query(value = "UPDATE clients SET current_balance = LEAST(current_balance * :rate, initial_balance * :cap) " +
+            "WHERE id IN (:ids) AND current_balance < initial_balance * :cap", nativeQuery = true)
+    int accrueInterest(List<Long> ids, double rate, double cap);
+
+    @Query(value = "SELECT COALESCE(MAX(id), 0) FROM clients", nativeQuery = true)
+    long findMaxId();
+
+    @Query(value = "SELECT id FROM clients WHERE id > :afterId AND id <= :toId " +
+            "AND current_balance < initial_balance * :cap AND (accrual_period IS NULL OR accrual_period < :period) " +
+            "ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Long> findAccrualCandidatesInRange(long afterId, long toId, long period, double cap, int limit);
+
+    /**
+     * Compounds every period a row has missed since it was last accrued, but at most {@code maxPeriods}: rows
+     * that sat at the cap keep an old stamp and must not be credited for the periods they were skipped.
+     */
+    @Modifying
+    @Query(value = "UPDATE clients SET current_balance = LEAST(current_balance * " +
+            "POWER(:rate, LEAST(:period - COALESCE(accrual_period, :period - 1), :maxPeriods)), " +
+            "initial_balance * :cap), accrual_period = :period WHERE id IN (:ids) " +
+            "AND current_balance < initial_balance * :cap " +
+            "AND (accrual_period IS NULL OR accrual_period < :period)", nativeQuery = true)
+    int accrueInterestForPeriod(List<Long> ids, double rate, double cap, long period, long maxPeriods);
+
+    @Modifying
+    @Query(value = "UPDATE clients SET accrual_period = :period WHERE id IN " +
+            "(SELECT id FROM clients WHERE accrual_period IS NULL LIMIT :limit FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int stampAccrualPeriod(long period, int limit);
+
 }
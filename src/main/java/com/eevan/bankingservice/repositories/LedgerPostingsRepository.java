@@ -0,0 +1,26 @@
+package com.eevan.bankingservice.repositories;
+
+import com.eevan.bankingservice.entities.LedgerPosting;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface LedgerPostingsRepository extends JpaRepository<LedgerPosting, Long> {
+
+    @Query("select p.clientId as clientId, sum(p.amount) as amount from LedgerPosting p " +
+            "where p.clientId in :clientIds and p.folded = false group by p.clientId")
+    List<PendingAmount> findPendingAmounts(Collection<Long> clientIds);
+
+    @Query(value = "SELECT DISTINCT client_id FROM ledger_postings WHERE NOT folded AND client_id > :afterId " +
+            "ORDER BY client_id LIMIT :limit", nativeQuery = true)
+    List<Long> findClientIdsWithPendingPostings(long afterId, int limit);
+
+    @Query(value = "WITH folded AS (UPDATE ledger_postings SET folded = true " +
+            "WHERE NOT folded AND client_id IN (:clientIds) RETURNING client_id, amount) " +
+            "SELECT client_id AS \"clientId\", SUM(amount) AS \"amount\" FROM folded GROUP BY client_id", nativeQuery = true)
+    List<PendingAmount> foldPendingPostings(Collection<Long> clientIds);
+}
@@ -0,0 +1,7 @@
+package com.eevan.bankingservice.repositories;
+
+public interface PendingAmount {
+    Long getClientId();
+
+    Double getAmount();
+}
@@ -0,0 +1,22 @@
+package com.eevan.bankingservice.repositories;
+
+import com.eevan.bankingservice.entities.TransferIdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TransferIdempotencyKeysRepository extends JpaRepository<TransferIdempotencyKey, Long> {
+
+    List<TransferIdempotencyKey> findAllByPayerIdInAndIdempotencyKeyIn(Collection<Long> payerIds,
+                                                                       Collection<String> idempotencyKeys);
+
+    @Modifying
+    @Query("delete from TransferIdempotencyKey k where k.createdAt < :createdBefore")
+    int deleteByCreatedAtBefore(Instant createdBefore);
+}
@@ -2,8 +2,9 @@ package com.eevan.bankingservice.security;
 
 import com.eevan.bankingservice.dto.ClientSignInRequestDto;
 import com.eevan.bankingservice.dto.ClientSignUpRequestDto;
-import com.eevan.bankingservice.entities.Client;
+import com.eevan.bankingservice.mappers.ClientMapper;
 import com.eevan.bankingservice.services.ClientService;
+import com.eevan.bankingservice.services.LazyAccrual;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -16,23 +17,16 @@ import com.eevan.bankingservice.dto.JwtAuthenticationResponseDto;
 public class AuthenticationService {
     private final ClientService clientService;
     private final JwtService jwtService;
+    private final ClientMapper clientMapper;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
+    private final LazyAccrual lazyAccrual;
 
     public JwtAuthenticationResponseDto signUp(ClientSignUpRequestDto request) {
 
-        var client = Client.builder()
-                .login(request.getLogin())
-                .password(passwordEncoder.encode(request.getPassword()))
-                .name(request.getName())
-                .surname(request.getSurname())
-                .patronymic(request.getPatronymic())
-                .emailMain(request.getEmailMain())
-                .phoneNumberMain(request.getPhoneNumberMain())
-                .dateOfBirth(request.getDateOfBirth())
-                .initialBalance(request.getInitialBalance())
-                .currentBalance(request.getInitialBalance())
-                .build();
+        var client = clientMapper.toEntity(request);
+        client.setPassword(passwordEncoder.encode(request.getPassword()));
+        lazyAccrual.materialize(client, lazyAccrual.currentPeriod());
 
         clientService.save(client);
 
@@ -1,14 +1,18 @@
 package com.eevan.bankingservice.security;
 
 import com.eevan.bankingservice.services.ClientService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -17,15 +21,39 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     public static final String BEARER_PREFIX = "Bearer ";
     public static final String HEADER_NAME = "Authorization";
+    private static final String ANONYMOUS = "anonymous";
+    private static final String AUTHENTICATED = "authenticated";
+    private static final String REJECTED = "rejected";
+    private static final String FAILED = "failed";
+    private static final List<GrantedAuthority> ADMIN_AUTHORITIES = List.of(new SimpleGrantedAuthority("ROLE_ADMIN"));
     private final JwtService jwtService;
     private final ClientService clientService;
+    private final Set<String> adminLogins;
+    private final Map<String, Timer> timers = new HashMap<>();
 
+    public JwtAuthenticationFilter(JwtService jwtService, ClientService clientService, MeterRegistry meterRegistry,
+                                   @Value("${security.admin-logins:}") List<String> adminLogins) {
+        this.jwtService = jwtService;
+        this.clientService = clientService;
+        this.adminLogins = Set.copyOf(adminLogins);
+        for (String outcome : List.of(ANONYMOUS, AUTHENTICATED, REJECTED, FAILED)) {
+            timers.put(outcome, Timer.builder("auth.jwt.filter")
+                    .description("Time spent authenticating a request, excluding the rest of the filter chain")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
 
     @Override
     protected void doFilterInternal(
@@ -33,35 +61,46 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NonNull HttpServletResponse response,
             @NonNull FilterChain filterChain
     ) throws ServletException, IOException {
+        long start = System.nanoTime();
+        String outcome = FAILED;
+        try {
+            outcome = authenticate(request);
+        } finally {
+            timers.get(outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private String authenticate(HttpServletRequest request) {
         var authHeader = request.getHeader(HEADER_NAME);
         if (StringUtils.isEmpty(authHeader) || !StringUtils.startsWith(authHeader, BEARER_PREFIX)) {
-            filterChain.doFilter(request, response);
-            return;
+            return ANONYMOUS;
         }
 
         var jwt = authHeader.substring(BEARER_PREFIX.length());
-        var username = jwtService.extractLogin(jwt);
+        var claims = jwtService.verifyToken(jwt);
+        var username = claims.getSubject();
 
         if (StringUtils.isNotEmpty(username) && SecurityContextHolder.getContext().getAuthentication() == null) {
             UserDetails userDetails = clientService
                     .userDetailsService()
                     .loadUserByUsername(username);
 
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+            if (jwtService.isTokenValid(claims, userDetails)) {
                 SecurityContext context = SecurityContextHolder.createEmptyContext();
 
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
-                        userDetails.getAuthorities()
+                        adminLogins.contains(username) ? ADMIN_AUTHORITIES : List.of()
                 );
 
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 context.setAuthentication(authToken);
                 SecurityContextHolder.setContext(context);
+                return AUTHENTICATED;
             }
         }
-        filterChain.doFilter(request, response);
-
+        return REJECTED;
     }
 }
@@ -0,0 +1,81 @@
+package com.eevan.bankingservice.services;
+
+import com.eevan.bankingservice.entities.AccrualLease;
+import com.eevan.bankingservice.repositories.AccrualLeasesRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.Optional;
+
+/**
+ * DB-backed leases that split one accrual period into id ranges shared by all nodes. Every node plans the
+ * same ranges for a period, claims free or expired ones and renews its lease after each chunk, so a range
+ * left behind by a dead node is picked up by the others once its lease runs out, even in a later period.
+ * Only completed leases are purged. Expiry is checked on the database clock, which {@link LazyAccrual} also
+ * counts periods by, so nodes agree on both regardless of their own clock skew.
+ */
+@Slf4j
+@Component
+public class AccrualLeases {
+
+    private static final int RETAINED_PERIODS = 60;
+
+    private final AccrualLeasesRepository leasesRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long rangeSize;
+    private final int leaseSeconds;
+    private final String nodeId;
+
+    @Autowired
+    public AccrualLeases(AccrualLeasesRepository leasesRepository,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${accrual.cluster.enabled:false}") boolean enabled,
+                         @Value("${accrual.cluster.range-size:10000}") long rangeSize,
+                         @Value("${accrual.cluster.lease-seconds:30}") int leaseSeconds,
+                         @Value("${accrual.cluster.node-id:}") String nodeId) {
+        this.leasesRepository = leasesRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.rangeSize = rangeSize;
+        this.leaseSeconds = leaseSeconds;
+        this.nodeId = nodeId.isBlank() ? ManagementFactory.getRuntimeMXBean().getName() : nodeId;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void plan(long period, long maxClientId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            leasesRepository.deleteCompletedByPeriodBefore(period - RETAINED_PERIODS);
+            int planned = leasesRepository.planRanges(period, maxClientId, rangeSize);
+            if (planned > 0) {
+                log.info("Planned {} accrual ranges for period {}", planned, period);
+            }
+        });
+    }
+
+    public Optional<AccrualLease> claim(long period) {
+        return transactionTemplate.execute(status -> leasesRepository.claimNext(period, nodeId, leaseSeconds));
+    }
+
+    public boolean renew(AccrualLease lease) {
+        Integer renewed = transactionTemplate.execute(status ->
+                leasesRepository.renew(lease.getId(), nodeId, leaseSeconds));
+        return renewed != null && renewed > 0;
+    }
+
+    public void complete(AccrualLease lease) {
+        transactionTemplate.executeWithoutResult(status -> leasesRepository.complete(lease.getId(), nodeId));
+    }
+}
@@ -0,0 +1,36 @@
+package com.eevan.bankingservice.services;
+
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+public class AccrualRunStats {
+    private int ranges;
+    private int chunks;
+    private int rowsTouched;
+    private int rowsDeferred;
+    private long totalChunkMillis;
+    private long maxChunkMillis;
+    private long durationMillis;
+
+    void recordRange() {
+        ranges++;
+    }
+
+    void recordChunk(long chunkMillis, int rows) {
+        chunks++;
+        rowsTouched += rows;
+        totalChunkMillis += chunkMillis;
+        maxChunkMillis = Math.max(maxChunkMillis, chunkMillis);
+    }
+
+    void finish(int deferred, long durationMillis) {
+        this.rowsDeferred = deferred;
+        this.durationMillis = durationMillis;
+    }
+
+    public long getAverageChunkMillis() {
+        return chunks == 0 ? 0 : totalChunkMillis / chunks;
+    }
+}
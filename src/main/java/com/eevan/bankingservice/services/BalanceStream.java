@@ -0,0 +1,247 @@
+package com.eevan.bankingservice.services;
+
+import com.eevan.bankingservice.config.ReadWriteRoutingDataSource;
+import com.eevan.bankingservice.dto.BalanceEventDto;
+import com.eevan.bankingservice.entities.Client;
+import com.eevan.bankingservice.repositories.ClientsRepository;
+import com.eevan.bankingservice.utils.BalanceStreamRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pushes balance changes to open server-sent event streams. Writers only mark a client as changed; every
+ * {@code balance-stream.coalesce-ms} the changed clients that have a stream are read in one query and the
+ * new balance is handed to each of their connections. A connection holds at most one unsent balance and
+ * has at most one write in flight, so a slow reader only ever gets the latest value and cannot queue up
+ * memory or block the others. Idle streams are async requests and hold no thread.
+ */
+@Slf4j
+@Component
+public class BalanceStream {
+
+    private static final int READ_CHUNK_SIZE = 1000;
+
+    private final ClientsRepository clientsRepository;
+    private final LedgerService ledgerService;
+    private final LazyAccrual lazyAccrual;
+    private final HotAccounts hotAccounts;
+    private final TransactionTemplate readTemplate;
+    private final ExecutorService sender;
+    private final long timeoutMillis;
+    private final int maxConnections;
+    private final Map<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final Set<Long> changedIds = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Counter sentEvents;
+
+    @Autowired
+    public BalanceStream(ClientsRepository clientsRepository,
+                         LedgerService ledgerService,
+                         LazyAccrual lazyAccrual,
+                         HotAccounts hotAccounts,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry,
+                         @Value("${balance-stream.timeout-ms:1800000}") long timeoutMillis,
+                         @Value("${balance-stream.max-connections:10000}") int maxConnections,
+                         @Value("${balance-stream.send-threads:4}") int sendThreads) {
+        this.clientsRepository = clientsRepository;
+        this.ledgerService = ledgerService;
+        this.lazyAccrual = lazyAccrual;
+        this.hotAccounts = hotAccounts;
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+        this.readTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.timeoutMillis = timeoutMillis;
+        this.maxConnections = maxConnections;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(sendThreads, runnable -> {
+            Thread thread = new Thread(runnable, "balance-stream-sender-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sentEvents = Counter.builder("balance.stream.events")
+                .description("Balance events written to streams")
+                .register(meterRegistry);
+        Gauge.builder("balance.stream.connections", connections, AtomicInteger::get)
+                .description("Open balance streams")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Long clientId) {
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            throw new BalanceStreamRejectedException("Too many open balance streams, try again later");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscription subscription = new Subscription(clientId, emitter);
+        subscriptions.compute(clientId, (id, clientSubscriptions) -> {
+            Set<Subscription> updated = clientSubscriptions;
+            if (updated == null) {
+                updated = ConcurrentHashMap.newKeySet();
+            }
+            updated.add(subscription);
+            return updated;
+        });
+        emitter.onCompletion(() -> unsubscribe(subscription));
+        emitter.onError(e -> unsubscribe(subscription));
+        changedIds.add(clientId);
+        return emitter;
+    }
+
+    /**
+     * Marks balances as changed; call after the change is committed.
+     */
+    public void changed(Collection<Long> clientIds) {
+        for (Long clientId : clientIds) {
+            if (subscriptions.containsKey(clientId)) {
+                changedIds.add(clientId);
+            }
+        }
+    }
+
+    public void changedAll() {
+        changedIds.addAll(subscriptions.keySet());
+    }
+
+    public int connectionCount() {
+        return connections.get();
+    }
+
+    @Scheduled(fixedDelayString = "${balance-stream.coalesce-ms:250}")
+    public void publishChanges() {
+        if (changedIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(changedIds);
+        changedIds.removeAll(ids);
+        for (int from = 0; from < ids.size(); from += READ_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + READ_CHUNK_SIZE, ids.size()));
+            Map<Long, Double> balances = ReadWriteRoutingDataSource.onPrimary(() ->
+                    readTemplate.execute(status -> readBalances(chunk)));
+            balances.forEach((clientId, balance) -> subscriptions.getOrDefault(clientId, Set.of())
+                    .forEach(subscription -> subscription.offer(balance)));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${balance-stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        subscriptions.values().forEach(clientSubscriptions -> clientSubscriptions.forEach(Subscription::ping));
+    }
+
+    @PreDestroy
+    public void stop() {
+        sender.shutdownNow();
+        subscriptions.values().forEach(clientSubscriptions ->
+                clientSubscriptions.forEach(subscription -> subscription.emitter.complete()));
+    }
+
+    private Map<Long, Double> readBalances(List<Long> clientIds) {
+        long period = lazyAccrual.currentPeriod();
+        Map<Long, Double> pending = ledgerService.findPendingAmounts(clientIds);
+        Map<Long, Double> inSlots = hotAccounts.findSlotTotals(clientIds);
+        Map<Long, Double> balances = new HashMap<>();
+        for (Client client : clientsRepository.findByIdInOrderById(clientIds)) {
+            balances.put(client.getId(), lazyAccrual.balanceAt(client, period)
+                    + pending.getOrDefault(client.getId(), 0.0) + inSlots.getOrDefault(client.getId(), 0.0));
+        }
+        return balances;
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        subscriptions.computeIfPresent(subscription.clientId, (id, clientSubscriptions) -> {
+            if (clientSubscriptions.remove(subscription)) {
+                connections.decrementAndGet();
+            }
+            return clientSubscriptions.isEmpty() ? null : clientSubscriptions;
+        });
+    }
+
+    private final class Subscription {
+        private final Long clientId;
+        private final SseEmitter emitter;
+        private final AtomicReference<Double> pendingBalance = new AtomicReference<>();
+        private final AtomicBoolean pendingPing = new AtomicBoolean();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile boolean closed;
+        private double sentBalance = Double.NaN;
+
+        private Subscription(Long clientId, SseEmitter emitter) {
+            this.clientId = clientId;
+            this.emitter = emitter;
+        }
+
+        private void offer(double balance) {
+            pendingBalance.set(balance);
+            schedule();
+        }
+
+        private void ping() {
+            pendingPing.set(true);
+            schedule();
+        }
+
+        private void schedule() {
+            if (closed || !sending.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                sender.execute(this::send);
+            } catch (RejectedExecutionException e) {
+                sending.set(false);
+            }
+        }
+
+        private void send() {
+            try {
+                Double balance = pendingBalance.getAndSet(null);
+                boolean ping = pendingPing.getAndSet(false);
+                if (balance != null && Double.compare(balance, sentBalance) != 0) {
+                    emitter.send(SseEmitter.event()
+                            .name("balance")
+                            .data(new BalanceEventDto(clientId, balance), MediaType.APPLICATION_JSON));
+                    sentBalance = balance;
+                    sentEvents.increment();
+                } else if (ping) {
+                    emitter.send(SseEmitter.event().comment("ping"));
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Balance stream of client {} is gone: {}", clientId, e.getMessage());
+                closed = true;
+                unsubscribe(this);
+            } finally {
+                sending.set(false);
+            }
+            if (pendingBalance.get() != null || pendingPing.get()) {
+                schedule();
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.eevan.bankingservice.services;
+
+import com.eevan.bankingservice.entities.Client;
+import com.eevan.bankingservice.repositories.ClientsRepository;
+import com.eevan.bankingservice.utils.AsyncCaches;
+import com.eevan.bankingservice.utils.ClientNotFoundException;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read-through cache of client profiles for the email and phone lookup endpoints. Entries are detached
+ * snapshots without {@code currentBalance}, so transfers and accrual never make them stale; anything that
+ * needs the balance or intends to modify the client must read it from the repository.
+ * <p>
+ * Both lookups resolve to an id first and share one store of profiles keyed by id. The cached profile is
+ * checked against the requested contact, so a contact that has since moved falls through to the database.
+ * <p>
+ * Callers are not transactional, so every load opens its own read-only transaction and goes to a replica.
+ */
+@Component
+public class ClientCache {
+
+    private final ClientsRepository clientsRepository;
+    private final ReadYourWrites readYourWrites;
+    private final TransactionTemplate readTemplate;
+    private final AsyncCache<Long, Client> clientsById;
+    private final Cache<String, Long> idsByEmail;
+    private final Cache<String, Long> idsByPhone;
+
+    @Autowired
+    public ClientCache(ClientsRepository clientsRepository,
+                       ReadYourWrites readYourWrites,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${client.cache.max-size:100000}") long maxSize,
+                       @Value("${client.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.clientsRepository = clientsRepository;
+        this.readYourWrites = readYourWrites;
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+        this.clientsById = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .buildAsync();
+        this.idsByEmail = naturalIdCache(maxSize, ttlSeconds);
+        this.idsByPhone = naturalIdCache(maxSize, ttlSeconds);
+    }
+
+    public Client findByEmail(String email) {
+        Long id = idsByEmail.getIfPresent(email);
+        if (id != null) {
+            Client cached = findById(id);
+            if (email.equals(cached.getEmailMain())) {
+                return cached;
+            }
+        }
+        Client client = readTemplate.execute(status -> clientsRepository.findByEmailMain(email))
+                .orElseThrow(ClientNotFoundException::new);
+        idsByEmail.put(email, client.getId());
+        return findById(client.getId());
+    }
+
+    public Client findByPhone(String phoneNumber) {
+        Long id = idsByPhone.getIfPresent(phoneNumber);
+        if (id != null) {
+            Client cached = findById(id);
+            if (phoneNumber.equals(cached.getPhoneNumberMain())
+                    || phoneNumber.equals(cached.getPhoneNumberAdditional())) {
+                return cached;
+            }
+        }
+        Client client = readTemplate.execute(status ->
+                        clientsRepository.findByPhoneNumberMainOrPhoneNumberAdditional(phoneNumber, phoneNumber))
+                .orElseThrow(ClientNotFoundException::new);
+        idsByPhone.put(phoneNumber, client.getId());
+        return findById(client.getId());
+    }
+
+    public void evict(Long id) {
+        if (id != null) {
+            clientsById.synchronous().invalidate(id);
+        }
+    }
+
+    public Cache<Long, Client> clientsById() {
+        return clientsById.synchronous();
+    }
+
+    public Cache<String, Long> idsByEmail() {
+        return idsByEmail;
+    }
+
+    public Cache<String, Long> idsByPhone() {
+        return idsByPhone;
+    }
+
+    private Client findById(long id) {
+        return AsyncCaches.getOrLoad(clientsById, id, this::loadById);
+    }
+
+    private Client loadById(Long id) {
+        Optional<Client> client = readTemplate.execute(status -> readYourWrites.readById(id,
+                () -> clientsRepository.findByIdInOrderById(List.of(id)).stream().findFirst()));
+        return snapshot(client.orElseThrow(ClientNotFoundException::new));
+    }
+
+    private static Client snapshot(Client client) {
+        return Client.builder()
+                .id(client.getId())
+                .login(client.getLogin())
+                .password(client.getPassword())
+                .name(client.getName())
+                .surname(client.getSurname())
+                .patronymic(client.getPatronymic())
+                .dateOfBirth(client.getDateOfBirth())
+                .phoneNumberMain(client.getPhoneNumberMain())
+                .phoneNumberAdditional(client.getPhoneNumberAdditional())
+                .emailMain(client.getEmailMain())
+                .emailAdditional(client.getEmailAdditional())
+                .initialBalance(client.getInitialBalance())
+                .build();
+    }
+
+    private static Cache<String, Long> naturalIdCache(long maxSize, long ttlSeconds) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+}
@@ -0,0 +1,338 @@
+package com.eevan.bankingservice.services;
+
+import com.eevan.bankingservice.dto.ClientImportErrorDto;
+import com.eevan.bankingservice.dto.ClientImportReportDto;
+import com.eevan.bankingservice.dto.ClientSignUpRequestDto;
+import com.eevan.bankingservice.entities.Client;
+import com.eevan.bankingservice.mappers.ClientMapper;
+import com.eevan.bankingservice.repositories.ClientsBulkRepository;
+import com.eevan.bankingservice.repositories.ClientsRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Creates clients from an uploaded CSV or NDJSON file. Lines are validated one by one and written in
+ * batches of {@code batchSize} with a single multi-row insert, so a bad line only rejects itself and the
+ * rest of the file goes through. Passwords of a batch are hashed in parallel on a dedicated pool, which
+ * keeps the import from competing with the login pool.
+ */
+@Slf4j
+@Service
+public class ClientImportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final Pattern BCRYPT_HASH = Pattern.compile("\\$2[aby]?\\$\\d{2}\\$[./0-9A-Za-z]{53}");
+
+    private final ClientsRepository clientsRepository;
+    private final ClientsBulkRepository clientsBulkRepository;
+    private final ClientMapper clientMapper;
+    private final Validator validator;
+    private final ObjectReader jsonReader;
+    private final CsvMapper csvMapper;
+    private final ContactUniquenessIndex contactIndex;
+    private final FioPrefixIndex fioIndex;
+    private final LazyAccrual lazyAccrual;
+    private final PasswordEncoder passwordEncoder;
+    private final ExecutorService hashingExecutor;
+    private final int batchSize;
+    private final int maxReportedErrors;
+    private final Counter importedRows;
+    private final Counter rejectedRows;
+
+    @Autowired
+    public ClientImportService(ClientsRepository clientsRepository,
+                               ClientsBulkRepository clientsBulkRepository,
+                               ClientMapper clientMapper,
+                               Validator validator,
+                               ObjectMapper objectMapper,
+                               ContactUniquenessIndex contactIndex,
+                               FioPrefixIndex fioIndex,
+                               LazyAccrual lazyAccrual,
+                               MeterRegistry meterRegistry,
+                               @Value("${password.bcrypt.strength:10}") int strength,
+                               @Value("${client-import.batch-size:1000}") int batchSize,
+                               @Value("${client-import.hashing-threads:0}") int hashingThreads,
+                               @Value("${client-import.max-reported-errors:10000}") int maxReportedErrors) {
+        this.clientsRepository = clientsRepository;
+        this.clientsBulkRepository = clientsBulkRepository;
+        this.clientMapper = clientMapper;
+        this.validator = validator;
+        this.jsonReader = objectMapper.readerFor(ClientSignUpRequestDto.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.csvMapper = CsvMapper.builder()
+                .findAndAddModules()
+                .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+        this.contactIndex = contactIndex;
+        this.fioIndex = fioIndex;
+        this.lazyAccrual = lazyAccrual;
+        this.passwordEncoder = new BCryptPasswordEncoder(strength);
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+
+        // A quarter of the cores by default: together with the login pool's half, an import never takes them all
+        int threads = hashingThreads > 0 ? hashingThreads
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.hashingExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "client-import-hashing-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.importedRows = rowCounter("imported", meterRegistry);
+        this.rejectedRows = rowCounter("rejected", meterRegistry);
+    }
+
+    public ClientImportReportDto importClients(InputStream input, Format format, boolean passwordsHashed)
+            throws IOException {
+        long start = System.currentTimeMillis();
+        Report report = new Report(maxReportedErrors);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        long lineNumber = 0;
+        ObjectReader lineReader = jsonReader;
+        if (format == Format.CSV) {
+            String header = reader.readLine();
+            lineNumber++;
+            if (header == null || header.isBlank()) {
+                return report.toDto();
+            }
+            lineReader = csvReader(header);
+        }
+
+        List<ImportRow> batch = new ArrayList<>(batchSize);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            report.lines++;
+            ImportRow row = parse(lineReader, lineNumber, line, passwordsHashed, report);
+            if (row != null) {
+                batch.add(row);
+            }
+            if (batch.size() >= batchSize) {
+                importBatch(batch, passwordsHashed, report);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            importBatch(batch, passwordsHashed, report);
+        }
+        log.info("Client import finished: {} lines, {} imported, {} rejected in {} ms",
+                report.lines, report.imported, report.rejected, System.currentTimeMillis() - start);
+        return report.toDto();
+    }
+
+    @PreDestroy
+    public void stop() {
+        hashingExecutor.shutdownNow();
+    }
+
+    private ObjectReader csvReader(String header) throws IOException {
+        String[] columns = csvMapper.readerFor(String[].class).readValue(header);
+        CsvSchema.Builder schema = CsvSchema.builder();
+        for (String column : columns) {
+            schema.addColumn(column.trim());
+        }
+        return csvMapper.readerFor(ClientSignUpRequestDto.class).with(schema.build());
+    }
+
+    private ImportRow parse(ObjectReader lineReader, long lineNumber, String line, boolean passwordsHashed,
+                            Report report) {
+        ClientSignUpRequestDto request;
+        try {
+            request = lineReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            reject(report, lineNumber, null, "Line could not be read: " + e.getOriginalMessage());
+            return null;
+        }
+
+        Set<ConstraintViolation<ClientSignUpRequestDto>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            reject(report, lineNumber, request.getLogin(), violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+            return null;
+        }
+        if (passwordsHashed && !BCRYPT_HASH.matcher(request.getPassword()).matches()) {
+            reject(report, lineNumber, request.getLogin(), "Password should be a BCrypt hash");
+            return null;
+        }
+        return new ImportRow(lineNumber, request);
+    }
+
+    private void importBatch(List<ImportRow> batch, boolean passwordsHashed, Report report) {
+        List<ImportRow> rows = rejectTaken(rejectRepeated(batch, report), report);
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        List<CompletableFuture<String>> passwords = rows.stream()
+                .map(row -> passwordsHashed
+                        ? CompletableFuture.completedFuture(row.request().getPassword())
+                        : CompletableFuture.supplyAsync(() -> passwordEncoder.encode(row.request().getPassword()),
+                                hashingExecutor))
+                .toList();
+        long period = lazyAccrual.currentPeriod();
+        List<Client> clients = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Client client = clientMapper.toEntity(rows.get(i).request());
+            client.setPassword(passwords.get(i).join());
+            lazyAccrual.materialize(client, period);
+            clients.add(client);
+        }
+
+        Map<String, Long> ids = clientsBulkRepository.insertSkippingConflicts(clients);
+        for (int i = 0; i < clients.size(); i++) {
+            Client client = clients.get(i);
+            Long id = ids.get(client.getLogin());
+            if (id == null) {
+                reject(report, rows.get(i).line(), client.getLogin(),
+                        "User with the same login, email or phone number is existing");
+                continue;
+            }
+            client.setId(id);
+            contactIndex.add(client);
+            fioIndex.add(id, client.getName(), client.getSurname(), client.getPatronymic());
+            report.imported++;
+            importedRows.increment();
+        }
+    }
+
+    private List<ImportRow> rejectRepeated(List<ImportRow> batch, Report report) {
+        Set<String> logins = new HashSet<>();
+        Set<String> phones = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        List<ImportRow> unique = new ArrayList<>(batch.size());
+        for (ImportRow row : batch) {
+            ClientSignUpRequestDto request = row.request();
+            if (!logins.add(request.getLogin())) {
+                reject(report, row.line(), request.getLogin(), "Login is repeated in the file");
+            } else if (!phones.add(request.getPhoneNumberMain())) {
+                reject(report, row.line(), request.getLogin(), "Phone number is repeated in the file");
+            } else if (!emails.add(request.getEmailMain())) {
+                reject(report, row.line(), request.getLogin(), "Email is repeated in the file");
+            } else {
+                unique.add(row);
+            }
+        }
+        return unique;
+    }
+
+    private List<ImportRow> rejectTaken(List<ImportRow> rows, Report report) {
+        if (rows.isEmpty()) {
+            return rows;
+        }
+        // Phones and emails may be taken in either column, which no constraint covers, so they are always
+        // looked up; only logins, backed by a unique constraint, are filtered through the index first
+        Set<String> logins = existing(rows, ClientSignUpRequestDto::getLogin, contactIndex::mightContainLogin,
+                clientsRepository::findExistingLogins);
+        Set<String> phones = existing(rows, ClientSignUpRequestDto::getPhoneNumberMain, phone -> true,
+                clientsRepository::findExistingPhones);
+        Set<String> emails = existing(rows, ClientSignUpRequestDto::getEmailMain, email -> true,
+                clientsRepository::findExistingEmails);
+
+        List<ImportRow> free = new ArrayList<>(rows.size());
+        for (ImportRow row : rows) {
+            ClientSignUpRequestDto request = row.request();
+            if (logins.contains(request.getLogin())) {
+                reject(report, row.line(), request.getLogin(), "User with the same login is existing");
+            } else if (phones.contains(request.getPhoneNumberMain())) {
+                reject(report, row.line(), request.getLogin(), "User with the same phone number is existing");
+            } else if (emails.contains(request.getEmailMain())) {
+                reject(report, row.line(), request.getLogin(), "User with the same email is existing");
+            } else {
+                free.add(row);
+            }
+        }
+        return free;
+    }
+
+    private static Set<String> existing(List<ImportRow> rows, Function<ClientSignUpRequestDto, String> value,
+                                        Predicate<String> mightExist,
+                                        Function<Collection<String>, List<String>> lookup) {
+        List<String> candidates = rows.stream()
+                .map(row -> value.apply(row.request()))
+                .filter(mightExist)
+                .toList();
+        return candidates.isEmpty() ? Set.of() : new HashSet<>(lookup.apply(candidates));
+    }
+
+    private void reject(Report report, long line, String login, String message) {
+        report.reject(line, login, message);
+        rejectedRows.increment();
+    }
+
+    private static Counter rowCounter(String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder("client.import.rows")
+                .description("Imported client lines by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record ImportRow(long line, ClientSignUpRequestDto request) {
+    }
+
+    private static final class Report {
+        private final int maxErrors;
+        private final List<ClientImportErrorDto> errors = new ArrayList<>();
+        private long lines;
+        private long imported;
+        private long rejected;
+
+        private Report(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        private void reject(long line, String login, String message) {
+            rejected++;
+            if (errors.size() < maxErrors) {
+                errors.add(new ClientImportErrorDto(line, login, message));
+            }
+        }
+
+        private ClientImportReportDto toDto() {
+            return new ClientImportReportDto(lines, imported, rejected, errors, rejected > errors.size());
+        }
+    }
+}
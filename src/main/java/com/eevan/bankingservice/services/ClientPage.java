@@ -0,0 +1,8 @@
+package com.eevan.bankingservice.services;
+
+import com.eevan.bankingservice.entities.Client;
+
+import java.util.List;
+
+public record ClientPage(List<Client> clients, String nextCursor) {
+}
@@ -1,102 +1,169 @@
 package com.eevan.bankingservice.services;
 
+import com.eevan.bankingservice.dto.ClientSearchRequestDto;
 import com.eevan.bankingservice.entities.Client;
+import com.eevan.bankingservice.repositories.ClientSpecifications;
 import com.eevan.bankingservice.repositories.ClientsRepository;
+import com.eevan.bankingservice.utils.AsyncCaches;
 import com.eevan.bankingservice.utils.ClientNotFoundException;
+import com.eevan.bankingservice.utils.InvalidCursorException;
+import com.eevan.bankingservice.utils.InvalidSearchRequestException;
+import com.eevan.bankingservice.utils.PageCursor;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ClientService {
 
+    private static final Set<String> SORTABLE_FIELDS = Set.of("id", "surname", "name", "patronymic", "dateOfBirth");
+
     private final ClientsRepository clientsRepository;
+    private final EntityManager entityManager;
+    private final InterestAccrualService interestAccrualService;
+    private final LedgerService ledgerService;
+    private final HotAccounts hotAccounts;
+    private final ContactUniquenessIndex contactIndex;
+    private final FioPrefixIndex fioIndex;
+    private final ClientCache clientCache;
+    private final ReadYourWrites readYourWrites;
+    private final TransactionTemplate readTemplate;
+    private final AsyncCache<String, Client> principals;
 
 
     @Autowired
-    public ClientService(ClientsRepository clientsRepository) {
+    public ClientService(ClientsRepository clientsRepository,
+                         EntityManager entityManager,
+                         InterestAccrualService interestAccrualService,
+                         LedgerService ledgerService,
+                         HotAccounts hotAccounts,
+                         ContactUniquenessIndex contactIndex,
+                         FioPrefixIndex fioIndex,
+                         ClientCache clientCache,
+                         ReadYourWrites readYourWrites,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${principal.cache.max-size:10000}") long principalCacheMaxSize,
+                         @Value("${principal.cache.ttl-seconds:60}") long principalCacheTtlSeconds) {
         this.clientsRepository = clientsRepository;
+        this.entityManager = entityManager;
+        this.interestAccrualService = interestAccrualService;
+        this.ledgerService = ledgerService;
+        this.hotAccounts = hotAccounts;
+        this.contactIndex = contactIndex;
+        this.fioIndex = fioIndex;
+        this.clientCache = clientCache;
+        this.readYourWrites = readYourWrites;
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(principalCacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(principalCacheTtlSeconds))
+                .recordStats()
+                .buildAsync();
     }
 
     @Transactional
     public void save(Client client) {
-        if (clientsRepository.existsByLogin(client.getLogin())) {
+        if (contactIndex.mightContainLogin(client.getLogin())
+                && clientsRepository.existsByLogin(client.getLogin())) {
             throw new RuntimeException("User with the same login is existing");
         }
 
-        if (clientsRepository.existsByEmailMainOrEmailAdditional(client.getEmailMain(),
-                client.getEmailMain())) {
-            throw new RuntimeException("User with the same email is existing");
-        }
+        checkEmailIsFree(client.getEmailMain());
+        checkPhoneIsFree(client.getPhoneNumberMain());
 
-        if (clientsRepository.existsByPhoneNumberMainOrPhoneNumberAdditional(client.getPhoneNumberMain(),
-                client.getPhoneNumberMain())) {
-            throw new RuntimeException("User with the same phone number is existing");
+        try {
+            clientsRepository.save(client);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("User with the same login, email or phone number is existing");
         }
-
-        clientsRepository.save(client);
+        contactIndex.add(client);
+        fioIndex.add(client.getId(), client.getName(), client.getSurname(), client.getPatronymic());
+        evictAfterCommit(client);
     }
 
     @Transactional
     public void changeMainPhone(int id, String phoneNumber) {
-        if (clientsRepository.existsByPhoneNumberMainOrPhoneNumberAdditional(phoneNumber, phoneNumber)) {
-            throw new RuntimeException("User with the same phone number is existing");
-        }
-        Client updatedClient = findClientById(id);
+        checkPhoneIsFree(phoneNumber);
+        Client updatedClient = lockClient(id);
         updatedClient.setPhoneNumberMain(phoneNumber);
         clientsRepository.save(updatedClient);
+        evictAfterCommit(updatedClient);
     }
 
     @Transactional
     public void changeMainEmail(int id, String email) {
-        if (clientsRepository.existsByEmailMainOrEmailAdditional(email, email)) {
-            throw new RuntimeException("User with the same email is existing");
-        }
-        Client updatedClient = findClientById(id);
+        checkEmailIsFree(email);
+        Client updatedClient = lockClient(id);
         updatedClient.setEmailMain(email);
         clientsRepository.save(updatedClient);
+        evictAfterCommit(updatedClient);
     }
 
     @Transactional
     public void addAdditionalPhone(int id, String phoneNumber) {
-        if (clientsRepository.existsByPhoneNumberMainOrPhoneNumberAdditional(phoneNumber, phoneNumber)) {
-            throw new RuntimeException("User with the same phone number is existing");
-        }
-        Client updatedClient = findClientById(id);
+        checkPhoneIsFree(phoneNumber);
+        Client updatedClient = lockClient(id);
         updatedClient.setPhoneNumberAdditional(phoneNumber);
         clientsRepository.save(updatedClient);
+        evictAfterCommit(updatedClient);
     }
 
     @Transactional
     public void addAdditionalEmail(int id, String email) {
-        if (clientsRepository.existsByEmailMainOrEmailAdditional(email, email)) {
-            throw new RuntimeException("User with the same email is existing");
-        }
-        Client updatedClient = findClientById(id);
+        checkEmailIsFree(email);
+        Client updatedClient = lockClient(id);
         updatedClient.setEmailAdditional(email);
         clientsRepository.save(updatedClient);
+        evictAfterCommit(updatedClient);
     }
 
     @Transactional
     public void deleteAdditionalPhone(int id) {
-        Client updatedClient = findClientById(id);
+        Client updatedClient = lockClient(id);
         updatedClient.setPhoneNumberAdditional(null);
         clientsRepository.save(updatedClient);
+        evictAfterCommit(updatedClient);
     }
 
     @Transactional
     public void deleteAdditionalEmail(int id) {
-        Client updatedClient = findClientById(id);
+        Client updatedClient = lockClient(id);
         updatedClient.setEmailAdditional(null);
         clientsRepository.save(updatedClient);
+        evictAfterCommit(updatedClient);
     }
 
     @Transactional(readOnly = true)
@@ -106,44 +173,158 @@ public class ClientService {
         return foundClients.orElseThrow(ClientNotFoundException::new);
     }
 
-    @Transactional(readOnly = true)
     public Client findClientByPhone(String phoneNumber) {
-        Optional<Client> foundClient = clientsRepository.findByPhoneNumberMainOrPhoneNumberAdditional(phoneNumber,
-                phoneNumber);
-        return foundClient.orElseThrow(ClientNotFoundException::new);
+        return clientCache.findByPhone(phoneNumber);
     }
 
-    @Transactional(readOnly = true)
     public Client findClientByEmail(String email) {
-        Optional<Client> foundClient = clientsRepository.findByEmailMain(email);
-        return foundClient.orElseThrow(ClientNotFoundException::new);
+        return clientCache.findByEmail(email);
     }
 
     @Transactional(readOnly = true)
-    public List<Client> findClientByFIO(String surname, String name, String patronymic, int pageNo, int recordCount) {
+    public List<Client> findClientByFIO(String name, String surname, String patronymic, int pageNo, int recordCount) {
+        Optional<List<FioPrefixIndex.Entry>> indexed = fioIndex.find(name, surname, patronymic);
+        if (indexed.isPresent()) {
+            List<FioPrefixIndex.Entry> entries = indexed.get()
+                    .stream()
+                    .sorted(Comparator.comparingLong(FioPrefixIndex.Entry::id))
+                    .skip((long) pageNo * recordCount)
+                    .limit(recordCount)
+                    .toList();
+            Optional<List<Client>> clients = findIndexed(entries);
+            if (clients.isEmpty()) {
+                return findClientByFIO(name, surname, patronymic, pageNo, recordCount);
+            }
+            return clients.get();
+        }
+
         Pageable pageable = PageRequest.of(pageNo, recordCount);
         Optional<List<Client>> foundClients = clientsRepository.
-                findByNameLikeAndSurnameLikeAndPatronymicLikeAllIgnoreCase(surname,
-                        name,
+                findByNameLikeAndSurnameLikeAndPatronymicLikeAllIgnoreCase(name,
+                        surname,
                         patronymic,
                         pageable);
         return foundClients.orElseThrow(ClientNotFoundException::new);
     }
 
     @Transactional(readOnly = true)
-    public Client findClientById(int id) {
-        Optional<Client> foundClient = clientsRepository.findById(id);
-        return foundClient.orElseThrow(ClientNotFoundException::new);
+    public ClientPage findClientByBirthdate(LocalDate birthdate, String cursor, int limit) {
+        LocalDate lastDateOfBirth = birthdate;
+        long lastId = 0;
+        if (cursor != null) {
+            PageCursor pageCursor = PageCursor.decode(cursor);
+            lastDateOfBirth = parseDate(pageCursor.sortKey());
+            lastId = pageCursor.id();
+        }
+        List<Client> clients = clientsRepository.findByDateOfBirthAfterKeyset(birthdate, lastDateOfBirth, lastId,
+                Limit.of(limit + 1));
+        return toPage(clients, limit, client -> client.getDateOfBirth().toString());
+    }
+
+    @Transactional(readOnly = true)
+    public ClientPage findClientByFIO(String name, String surname, String patronymic, String cursor, int limit) {
+        String lastSurname = "";
+        long lastId = 0;
+        if (cursor != null) {
+            PageCursor pageCursor = PageCursor.decode(cursor);
+            lastSurname = pageCursor.sortKey();
+            lastId = pageCursor.id();
+        }
+
+        Optional<List<FioPrefixIndex.Entry>> indexed = fioIndex.find(name, surname, patronymic);
+        if (indexed.isPresent()) {
+            PageCursor last = new PageCursor(lastSurname, lastId);
+            List<FioPrefixIndex.Entry> entries = indexed.get()
+                    .stream()
+                    .filter(entry -> isAfter(entry, last))
+                    .sorted(Comparator.comparing(FioPrefixIndex.Entry::surname)
+                            .thenComparingLong(FioPrefixIndex.Entry::id))
+                    .limit(limit + 1)
+                    .toList();
+            Optional<List<Client>> clients = findIndexed(entries);
+            if (clients.isEmpty()) {
+                return findClientByFIO(name, surname, patronymic, cursor, limit);
+            }
+            return toPage(clients.get()
+                    .stream()
+                    .sorted(Comparator.comparing(Client::getSurname).thenComparing(Client::getId))
+                    .toList(), limit, Client::getSurname);
+        }
+
+        List<Client> clients = clientsRepository.findByFIOKeyset(name, surname, patronymic, lastSurname, lastId,
+                Limit.of(limit + 1));
+        return toPage(clients, limit, Client::getSurname);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Client> findClients(ClientSearchRequestDto request) {
+        if (!SORTABLE_FIELDS.contains(request.getSortBy())) {
+            throw new InvalidSearchRequestException("Clients can be sorted only by " + SORTABLE_FIELDS);
+        }
+        if (request.getPage() < 0 || request.getSize() < 1 || request.getSize() > 1000
+                || (long) request.getPage() * request.getSize() > Integer.MAX_VALUE) {
+            throw new InvalidSearchRequestException("Page should be positive and size should be between 1 and 1000");
+        }
+
+        List<Specification<Client>> filters = new ArrayList<>();
+        if (request.getBirthdate() != null) {
+            filters.add(ClientSpecifications.bornAfter(request.getBirthdate()));
+        }
+        if (StringUtils.hasText(request.getPhoneNumber())) {
+            filters.add(ClientSpecifications.hasPhone(request.getPhoneNumber()));
+        }
+        if (StringUtils.hasText(request.getEmail())) {
+            filters.add(ClientSpecifications.hasEmail(request.getEmail()));
+        }
+        if (StringUtils.hasText(request.getSurname())) {
+            filters.add(ClientSpecifications.startsWith("surname", request.getSurname()));
+        }
+        if (StringUtils.hasText(request.getName())) {
+            filters.add(ClientSpecifications.startsWith("name", request.getName()));
+        }
+        if (StringUtils.hasText(request.getPatronymic())) {
+            filters.add(ClientSpecifications.startsWith("patronymic", request.getPatronymic()));
+        }
+
+        Sort sort = Sort.by(request.getDirection(), request.getSortBy());
+        if (!request.getSortBy().equals("id")) {
+            sort = sort.and(Sort.by("id"));
+        }
+        return clientsRepository.findSlice(Specification.allOf(filters), sort,
+                (long) request.getPage() * request.getSize(), request.getSize());
+    }
+
+    @Transactional(readOnly = true)
+    public void exportClients(Consumer<Client> consumer) {
+        try (Stream<Client> clients = clientsRepository.streamAllByOrderById()) {
+            clients.forEach(client -> {
+                consumer.accept(client);
+                entityManager.detach(client);
+            });
+        }
     }
 
     @Transactional(readOnly = true)
     public Client findByLogin(String login) {
-        Optional<Client> foundClient = clientsRepository.findByLogin(login);
+        Optional<Client> foundClient = readYourWrites.readByLogin(login, () -> clientsRepository.findByLogin(login));
         return foundClient.orElseThrow(ClientNotFoundException::new);
     }
 
     public UserDetailsService userDetailsService() {
-        return this::findByLogin;
+        return this::loadPrincipal;
+    }
+
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        Client client = clientsRepository.findByLogin(user.getUsername()).orElseThrow(ClientNotFoundException::new);
+        client.setPassword(newPassword);
+        clientsRepository.save(client);
+        evictAfterCommit(client);
+        return client;
+    }
+
+    public Cache<String, Client> principalCache() {
+        return principals.synchronous();
     }
 
     @Transactional(readOnly = true)
@@ -152,37 +333,99 @@ public class ClientService {
         return findByLogin(login);
     }
 
-    @Transactional
-    public void updateBalance() {
-        List<Client> clients = clientsRepository.findAll();
-        for (Client client : clients) {
-            double maxBalance = client.getInitialBalance() * 2.07;
-            if (client.getCurrentBalance() <= maxBalance) {
-                client.setCurrentBalance(Math.min(client.getCurrentBalance() * 1.05, maxBalance));
-                clientsRepository.save(client);
-            }
+    public AccrualRunStats updateBalance() {
+        ledgerService.compact();
+        hotAccounts.fold();
+        return interestAccrualService.accrue();
+    }
+
+    private Client loadPrincipal(String login) {
+        // A self-invocation bypasses @Transactional on findByLogin, so the read-only transaction that sends
+        // the lookup to a replica has to be opened here
+        return AsyncCaches.getOrLoad(principals, login, key -> readTemplate.execute(status -> findByLogin(key)));
+    }
+
+    /**
+     * Loads the clients of index entries, or drops the entries that no longer resolve and returns empty so
+     * that the caller repeats the lookup with a full page.
+     */
+    private Optional<List<Client>> findIndexed(List<FioPrefixIndex.Entry> entries) {
+        if (entries.isEmpty()) {
+            return Optional.of(List.of());
+        }
+        List<Client> clients = clientsRepository.findByIdInOrderById(entries.stream()
+                .map(FioPrefixIndex.Entry::id)
+                .toList());
+        if (clients.size() == entries.size()) {
+            return Optional.of(clients);
         }
+        Set<Long> found = clients.stream()
+                .map(Client::getId)
+                .collect(Collectors.toSet());
+        fioIndex.remove(entries.stream()
+                .filter(entry -> !found.contains(entry.id()))
+                .toList());
+        return Optional.empty();
     }
 
-    @Transactional
-    public synchronized void transferMoney(Long fromClientId, Long toClientId, double amount) {
-        if (fromClientId.equals(toClientId)) {
-            throw new IllegalArgumentException("Cannot transfer money to the same client");
+    private ClientPage toPage(List<Client> clients, int limit, Function<Client, String> sortKey) {
+        if (clients.size() <= limit) {
+            return new ClientPage(clients, null);
         }
+        List<Client> page = clients.subList(0, limit);
+        Client last = page.get(limit - 1);
+        return new ClientPage(page, new PageCursor(sortKey.apply(last), last.getId()).encode());
+    }
 
-        Client fromClient = clientsRepository.findById(fromClientId)
-                .orElseThrow(() -> new IllegalArgumentException("Client not found: " + fromClientId));
-        Client toClient = clientsRepository.findById(toClientId)
-                .orElseThrow(() -> new IllegalArgumentException("Client not found: " + toClientId));
+    private boolean isAfter(FioPrefixIndex.Entry entry, PageCursor cursor) {
+        int bySurname = entry.surname().compareTo(cursor.sortKey());
+        return bySurname > 0 || (bySurname == 0 && entry.id() > cursor.id());
+    }
 
-        if (fromClient.getCurrentBalance() < amount) {
-            throw new IllegalArgumentException("Insufficient balance");
+    private LocalDate parseDate(String value) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new InvalidCursorException();
         }
+    }
+
+    /**
+     * Phones and emails are unique across the main and additional columns, which no constraint covers, so
+     * this query cannot be skipped on a local "absent" answer the way the login check is.
+     */
+    private void checkPhoneIsFree(String phoneNumber) {
+        if (clientsRepository.existsByPhoneNumberMainOrPhoneNumberAdditional(phoneNumber, phoneNumber)) {
+            throw new RuntimeException("User with the same phone number is existing");
+        }
+    }
 
-        fromClient.setCurrentBalance(fromClient.getCurrentBalance() - amount);
-        toClient.setCurrentBalance(toClient.getCurrentBalance() + amount);
+    private void checkEmailIsFree(String email) {
+        if (clientsRepository.existsByEmailMainOrEmailAdditional(email, email)) {
+            throw new RuntimeException("User with the same email is existing");
+        }
+    }
+
+    private Client lockClient(int id) {
+        return clientsRepository.findById((long) id).orElseThrow(ClientNotFoundException::new);
+    }
+
+    private void evictAfterCommit(Client client) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(client);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                evict(client);
+            }
+        });
+    }
 
-        clientsRepository.save(fromClient);
-        clientsRepository.save(toClient);
+    private void evict(Client client) {
+        readYourWrites.pin(client);
+        principals.synchronous().invalidate(client.getLogin());
+        clientCache.evict(client.getId());
     }
 }
@@ -0,0 +1,80 @@
+package com.eevan.bankingservice.services;
+
+import com.eevan.bankingservice.entities.Client;
+import com.eevan.bankingservice.repositories.ClientLogins;
+import com.eevan.bankingservice.repositories.ClientsRepository;
+import com.eevan.bankingservice.utils.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Bloom filter of taken logins that lets sign-up skip the database check for logins never seen. Phone
+ * numbers and emails are not indexed: they are unique across two columns, which no constraint enforces,
+ * so the database is always asked about them.
+ */
+@Slf4j
+@Service
+public class ContactUniquenessIndex {
+
+    private final ClientsRepository clientsRepository;
+    private final boolean enabled;
+    private final int warmUpChunkSize;
+    private final BloomFilter logins;
+    private volatile boolean warmedUp;
+
+    @Autowired
+    public ContactUniquenessIndex(ClientsRepository clientsRepository,
+                                  @Value("${uniqueness-index.enabled:true}") boolean enabled,
+                                  @Value("${uniqueness-index.expected-entries:1000000}") long expectedEntries,
+                                  @Value("${uniqueness-index.false-positive-rate:0.01}") double falsePositiveRate,
+                                  @Value("${uniqueness-index.warm-up-chunk-size:5000}") int warmUpChunkSize) {
+        this.clientsRepository = clientsRepository;
+        this.enabled = enabled;
+        this.warmUpChunkSize = warmUpChunkSize;
+        this.logins = new BloomFilter(expectedEntries, falsePositiveRate);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        int loaded = 0;
+        long afterId = 0;
+        List<ClientLogins> chunk = clientsRepository.findByIdGreaterThanOrderById(afterId, Limit.of(warmUpChunkSize),
+                ClientLogins.class);
+        while (!chunk.isEmpty()) {
+            for (ClientLogins client : chunk) {
+                addLogin(client.getLogin());
+            }
+            loaded += chunk.size();
+            afterId = chunk.get(chunk.size() - 1).getId();
+            chunk = clientsRepository.findByIdGreaterThanOrderById(afterId, Limit.of(warmUpChunkSize),
+                ClientLogins.class);
+        }
+        warmedUp = true;
+        log.info("Uniqueness index warmed up with {} clients in {} ms", loaded, System.currentTimeMillis() - start);
+    }
+
+    public boolean mightContainLogin(String login) {
+        return !warmedUp || logins.mightContain(login);
+    }
+
+    public void add(Client client) {
+        addLogin(client.getLogin());
+    }
+
+    public void addLogin(String login) {
+        if (login != null) {
+            logins.put(login);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.eevan.bankingservice.services;
+
+import com.eevan.bankingservice.repositories.ClientNames;
+import com.eevan.bankingservice.repositories.ClientsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+public class FioPrefixIndex {
+
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private final ClientsRepository clientsRepository;
+    private final boolean enabled;
+    private final int maxMatches;
+    private final int loadChunkSize;
+    private final long rescanWindow;
+    private final ConcurrentSkipListMap<String, Entry> bySurname = new ConcurrentSkipListMap<>();
+    private final AtomicLong loadedUpToId = new AtomicLong();
+    private volatile boolean ready;
+
+    @Autowired
+    public FioPrefixIndex(ClientsRepository clientsRepository,
+                          @Value("${search.fio-index.enabled:false}") boolean enabled,
+                          @Value("${search.fio-index.max-matches:10000}") int maxMatches,
+                          @Value("${search.fio-index.load-chunk-size:5000}") int loadChunkSize,
+                          @Value("${search.fio-index.rescan-window:1000}") long rescanWindow) {
+        this.clientsRepository = clientsRepository;
+        this.enabled = enabled;
+        this.maxMatches = maxMatches;
+        this.loadChunkSize = loadChunkSize;
+        this.rescanWindow = rescanWindow;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        int loaded = loadClientsAfter(0);
+        ready = true;
+        log.info("FIO index loaded with {} clients in {} ms", loaded, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Picks up clients added by other nodes and bulk imports. IDENTITY ids are handed out before commit, so a
+     * client committed after a higher id was already indexed sits below the high-water mark; the last
+     * {@code rescan-window} ids are read again to catch it.
+     */
+    @Scheduled(fixedDelayString = "${search.fio-index.refresh-interval-ms:30000}")
+    public void refresh() {
+        if (ready) {
+            loadClientsAfter(Math.max(0, loadedUpToId.get() - rescanWindow));
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Indexes a client once the current transaction commits, so a rolled-back sign-up never shows up.
+     */
+    public void add(Long id, String name, String surname, String patronymic) {
+        if (!enabled) {
+            return;
+        }
+        Entry entry = new Entry(id, surname, fold(name), fold(surname), fold(patronymic));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(entry);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(entry);
+            }
+        });
+    }
+
+    /**
+     * Drops entries whose clients were not found by id.
+     */
+    public void remove(Collection<Entry> entries) {
+        entries.forEach(entry -> bySurname.remove(key(entry), entry));
+    }
+
+    public Optional<List<Entry>> find(String namePattern, String surnamePattern, String patronymicPattern) {
+        Pattern name = Pattern.parse(namePattern);
+        Pattern surname = Pattern.parse(surnamePattern);
+        Pattern patronymic = Pattern.parse(patronymicPattern);
+        if (!ready || name == null || surname == null || patronymic == null) {
+            return Optional.empty();
+        }
+
+        String from = surname.prefix() ? surname.value() : surname.value() + KEY_SEPARATOR;
+        ConcurrentNavigableMap<String, Entry> range = bySurname.subMap(from, true, from + Character.MAX_VALUE, true);
+        List<Entry> matches = new ArrayList<>();
+        for (Entry entry : range.values()) {
+            if (surname.matches(entry.foldedSurname())
+                    && name.matches(entry.foldedName())
+                    && patronymic.matches(entry.foldedPatronymic())) {
+                if (matches.size() == maxMatches) {
+                    return Optional.empty();
+                }
+                matches.add(entry);
+            }
+        }
+        return Optional.of(matches);
+    }
+
+    private int loadClientsAfter(long afterId) {
+        int loaded = 0;
+        List<ClientNames> chunk = clientsRepository.findByIdGreaterThanOrderById(afterId, Limit.of(loadChunkSize),
+                ClientNames.class);
+        while (!chunk.isEmpty()) {
+            for (ClientNames names : chunk) {
+                put(new Entry(names.getId(), names.getSurname(), fold(names.getName()), fold(names.getSurname()),
+                        fold(names.getPatronymic())));
+            }
+            loaded += chunk.size();
+            afterId = chunk.get(chunk.size() - 1).getId();
+            loadedUpToId.accumulateAndGet(afterId, Math::max);
+            chunk = clientsRepository.findByIdGreaterThanOrderById(afterId, Limit.of(loadChunkSize),
+                    ClientNames.class);
+        }
+        return loaded;
+    }
+
+    private void put(Entry entry) {
+        bySurname.put(key(entry), entry);
+    }
+
+    private static String key(Entry entry) {
+        return entry.foldedSurname() + KEY_SEPARATOR + entry.id();
+    }
+
+    private static String fold(String value) {
+        return value == null ? null : value.toUpperCase(Locale.ROOT);
+    }
+
+    public record Entry(long id, String surname, String foldedName, String foldedSurname, String foldedPatronymic) {
+    }
+
+    private record Pattern(String value, boolean prefix) {
+
+        static Pattern parse(String likePattern) {
+            if (likePattern == null) {
+                return null;
+            }
+            boolean prefix = likePattern.endsWith("%");
+            String value = prefix ? likePattern.substring(0, likePattern.length() - 1) : likePattern;
+            if (value.indexOf('%') >= 0 || value.indexOf('_') >= 0) {
+                return null;
+            }
+            return new Pattern(fold(value), prefix);
+        }
+
+        boolean matches(String folded) {
+            if (folded == null) {
+                return false;
+            }
+            return prefix ? folded.startsWith(value) : folded.equals(value);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.eevan.bankingservice.services;
+
+import com.eevan.bankingservice.entities.Client;
+import com.eevan.bankingservice.repositories.BalanceSlotsRepository;
+import com.eevan.bankingservice.repositories.ClientsRepository;
+import com.eevan.bankingservice.repositories.PendingAmount;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Credit sharding for accounts that receive a large share of all transfers. A credit to a hot account is
+ * added to one of {@code slots} sub-balance rows picked at random instead of to its client row, so payers
+ * of the same merchant no longer queue on one row lock. The client row keeps the rest of the balance: a
+ * debit larger than it first drains the slots into it under the client's row lock, and the periodic fold
+ * does the same for every hot account. Between drains slots only grow, so the total cannot go negative.
+ * Slots do not record when money was credited, so lazy accrual could not tell which periods of interest
+ * they are owed; the two modes cannot be combined.
+ */
+@Slf4j
+@Service
+public class HotAccounts {
+
+    private final BalanceSlotsRepository slotsRepository;
+    private final ClientsRepository clientsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Set<Long> hotIds;
+    private final int slots;
+
+    @Autowired
+    public HotAccounts(BalanceSlotsRepository slotsRepository,
+                       ClientsRepository clientsRepository,
+                       LazyAccrual lazyAccrual,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${hot-accounts.ids:}") List<Long> hotIds,
+                       @Value("${hot-accounts.slots:16}") int slots) {
+        if (!hotIds.isEmpty() && lazyAccrual.isEnabled()) {
+            throw new IllegalStateException("hot-accounts.ids cannot be used with accrual.lazy.enabled=true");
+        }
+        this.slotsRepository = slotsRepository;
+        this.clientsRepository = clientsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.hotIds = Set.copyOf(hotIds);
+        this.slots = slots;
+    }
+
+    public boolean isHot(Long clientId) {
+        return hotIds.contains(clientId);
+    }
+
+    public Map<Long, Double> findSlotTotals(Collection<Long> clientIds) {
+        List<Long> hot = clientIds.stream()
+                .filter(hotIds::contains)
+                .toList();
+        if (hot.isEmpty()) {
+            return Map.of();
+        }
+        return slotsRepository.findSlotTotals(hot)
+                .stream()
+                .collect(Collectors.toMap(PendingAmount::getClientId, PendingAmount::getAmount));
+    }
+
+    /**
+     * Adds each amount to a random slot of its account. Accounts are credited in id order so that two
+     * transactions crediting the same accounts cannot deadlock on slot rows.
+     */
+    public void credit(Map<Long, Double> credits) {
+        new TreeMap<>(credits).forEach((clientId, amount) ->
+                slotsRepository.credit(clientId, ThreadLocalRandom.current().nextInt(slots), amount));
+    }
+
+    /**
+     * Empties the slots of a client whose row is locked by the caller and returns what they held.
+     */
+    public double drain(Long clientId) {
+        return slotsRepository.drain(List.of(clientId))
+                .stream()
+                .mapToDouble(PendingAmount::getAmount)
+                .sum();
+    }
+
+    public int fold() {
+        if (hotIds.isEmpty()) {
+            return 0;
+        }
+        Integer folded = transactionTemplate.execute(status -> {
+            Map<Long, Client> clients = clientsRepository.findAllByIdInForUpdate(hotIds)
+                    .stream()
+                    .collect(Collectors.toMap(Client::getId, Function.identity()));
+            if (clients.isEmpty()) {
+                return 0;
+            }
+            List<PendingAmount> drained = slotsRepository.drain(clients.keySet());
+            for (PendingAmount amount : drained) {
+                Client client = clients.get(amount.getClientId());
+                client.setCurrentBalance(client.getCurrentBalance() + amount.getAmount());
+            }
+            clientsRepository.saveAll(clients.values());
+            return drained.size();
+        });
+        if (folded != null && folded > 0) {
+            log.info("Folded balance slots of {} hot accounts", folded);
+        }
+        return folded == null ? 0 : folded;
+    }
+}
@@ -0,0 +1,208 @@
+package com.eevan.bankingservice.services;
+
+import com.eevan.bankingservice.entities.AccrualLease;
+import com.eevan.bankingservice.repositories.ClientsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+@Slf4j
+@Service
+public class InterestAccrualService {
+
+    private final ClientsRepository clientsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AccrualLeases accrualLeases;
+    private final LazyAccrual lazyAccrual;
+    private final int chunkSize;
+    private final int retryAttempts;
+    private final double rate;
+    private final double cap;
+    private final Timer runTimer;
+    private final Timer chunkTimer;
+    private final Counter rowsTouched;
+    private final Counter rowsDeferred;
+
+    @Autowired
+    public InterestAccrualService(ClientsRepository clientsRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  AccrualLeases accrualLeases,
+                                  LazyAccrual lazyAccrual,
+                                  @Value("${accrual.chunk-size:1000}") int chunkSize,
+                                  @Value("${accrual.retry-attempts:3}") int retryAttempts,
+                                  @Value("${accrual.rate:1.05}") double rate,
+                                  @Value("${accrual.cap:2.07}") double cap) {
+        this.clientsRepository = clientsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.accrualLeases = accrualLeases;
+        this.lazyAccrual = lazyAccrual;
+        this.chunkSize = chunkSize;
+        this.retryAttempts = retryAttempts;
+        this.rate = rate;
+        this.cap = cap;
+        this.runTimer = Timer.builder("accrual.run")
+                .description("Duration of a full interest accrual pass")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("accrual.chunk")
+                .description("Duration of one accrual chunk transaction")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rowsTouched = Counter.builder("accrual.rows")
+                .tag("state", "touched")
+                .register(meterRegistry);
+        this.rowsDeferred = Counter.builder("accrual.rows")
+                .tag("state", "deferred")
+                .register(meterRegistry);
+    }
+
+    public AccrualRunStats accrue() {
+        long start = System.currentTimeMillis();
+        AccrualRunStats stats = new AccrualRunStats();
+        int deferred;
+        if (lazyAccrual.isEnabled()) {
+            deferred = stampUnaccrued(stats);
+        } else {
+            deferred = accrualLeases.isEnabled() ? accrueClaimedRanges(stats) : accrueAll(stats);
+        }
+
+        stats.finish(deferred, System.currentTimeMillis() - start);
+        runTimer.record(stats.getDurationMillis(), TimeUnit.MILLISECONDS);
+        rowsTouched.increment(stats.getRowsTouched());
+        rowsDeferred.increment(stats.getRowsDeferred());
+        log.info("Interest accrual finished: {}", stats);
+        return stats;
+    }
+
+    /**
+     * Lazy mode: interest is applied when a row is touched, so the run only gives rows that have never been
+     * accrued lazily (new ones, or all of them right after switching modes) a period to accrue from.
+     */
+    private int stampUnaccrued(AccrualRunStats stats) {
+        long period = lazyAccrual.currentPeriod();
+        int stamped;
+        do {
+            long start = System.currentTimeMillis();
+            stamped = transactionTemplate.execute(status -> clientsRepository.stampAccrualPeriod(period, chunkSize));
+            stats.recordChunk(System.currentTimeMillis() - start, stamped);
+        } while (stamped == chunkSize);
+        return 0;
+    }
+
+    private int accrueAll(AccrualRunStats stats) {
+        ToIntFunction<List<Long>> accrual = ids -> clientsRepository.accrueInterest(ids, rate, cap);
+        List<Long> deferred = new ArrayList<>();
+
+        long afterId = 0;
+        List<Long> candidates = clientsRepository.findAccrualCandidates(afterId, cap, chunkSize);
+        while (!candidates.isEmpty()) {
+            deferred.addAll(accrueChunk(candidates, accrual, stats));
+            afterId = candidates.get(candidates.size() - 1);
+            candidates = clientsRepository.findAccrualCandidates(afterId, cap, chunkSize);
+        }
+        return retryDeferred(deferred, accrual, stats).size();
+    }
+
+    /**
+     * Cluster mode: accrues only the id ranges this node manages to lease. Rows carry the period they were
+     * last accrued in, so a range re-run after a lost lease never compounds twice. A lease left open in an
+     * earlier period brings its rows up to the current one, compounding the periods they missed.
+     */
+    private int accrueClaimedRanges(AccrualRunStats stats) {
+        long period = lazyAccrual.currentPeriod();
+        accrualLeases.plan(period, clientsRepository.findMaxId());
+
+        int deferred = 0;
+        Set<Long> claimed = new HashSet<>();
+        Optional<AccrualLease> lease = accrualLeases.claim(period);
+        while (lease.isPresent() && claimed.add(lease.get().getId())) {
+            stats.recordRange();
+            deferred += accrueRange(lease.get(), period, stats);
+            lease = accrualLeases.claim(period);
+        }
+        return deferred;
+    }
+
+    private int accrueRange(AccrualLease lease, long period, AccrualRunStats stats) {
+        long maxPeriods = period - lease.getPeriod() + 1;
+        if (maxPeriods > 1) {
+            log.info("Taking over accrual of ids ({}, {}] left open in period {}",
+                    lease.getRangeStart(), lease.getRangeEnd(), lease.getPeriod());
+        }
+        ToIntFunction<List<Long>> accrual = ids -> clientsRepository.accrueInterestForPeriod(ids, rate, cap, period,
+                maxPeriods);
+        List<Long> deferred = new ArrayList<>();
+
+        long afterId = lease.getRangeStart();
+        List<Long> candidates = clientsRepository.findAccrualCandidatesInRange(afterId, lease.getRangeEnd(), period,
+                cap, chunkSize);
+        while (!candidates.isEmpty()) {
+            deferred.addAll(accrueChunk(candidates, accrual, stats));
+            if (!accrualLeases.renew(lease)) {
+                log.warn("Lost accrual lease for ids ({}, {}] in period {}, leaving it to its new owner",
+                        lease.getRangeStart(), lease.getRangeEnd(), period);
+                return 0;
+            }
+            afterId = candidates.get(candidates.size() - 1);
+            candidates = clientsRepository.findAccrualCandidatesInRange(afterId, lease.getRangeEnd(), period,
+                    cap, chunkSize);
+        }
+
+        deferred = retryDeferred(deferred, accrual, stats);
+        // A range with rows still locked stays open; whoever claims it after the lease expires retries them.
+        if (deferred.isEmpty()) {
+            accrualLeases.complete(lease);
+        }
+        return deferred.size();
+    }
+
+    private List<Long> retryDeferred(List<Long> deferred, ToIntFunction<List<Long>> accrual, AccrualRunStats stats) {
+        for (int attempt = 0; attempt < retryAttempts && !deferred.isEmpty(); attempt++) {
+            List<Long> stillLocked = new ArrayList<>();
+            for (int from = 0; from < deferred.size(); from += chunkSize) {
+                List<Long> chunk = deferred.subList(from, Math.min(from + chunkSize, deferred.size()));
+                stillLocked.addAll(accrueChunk(chunk, accrual, stats));
+            }
+            deferred = stillLocked;
+        }
+        return deferred;
+    }
+
+    private List<Long> accrueChunk(List<Long> ids, ToIntFunction<List<Long>> accrual, AccrualRunStats stats) {
+        long start = System.currentTimeMillis();
+        ChunkResult result = transactionTemplate.execute(status -> {
+            List<Long> lockedIds = clientsRepository.lockForAccrual(ids);
+            int updated = lockedIds.isEmpty() ? 0 : accrual.applyAsInt(lockedIds);
+            return new ChunkResult(lockedIds, updated);
+        });
+        long elapsed = System.currentTimeMillis() - start;
+        stats.recordChunk(elapsed, result.updated());
+        chunkTimer.record(elapsed, TimeUnit.MILLISECONDS);
+
+        List<Long> locked = result.locked();
+        if (locked.size() == ids.size()) {
+            return List.of();
+        }
+        Set<Long> lockedSet = new HashSet<>(locked);
+        return ids.stream()
+                .filter(id -> !lockedSet.contains(id))
+                .toList();
+    }
+
+    private record ChunkResult(List<Long> locked, int updated) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.eevan.bankingservice.services;
+
+import com.eevan.bankingservice.entities.Client;
+import com.eevan.bankingservice.repositories.AccrualLeasesRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Closed-form interest for the lazy accrual mode. A row keeps the period its balance was last brought up
+ * to date in, and the interest owed since then, {@code min(balance * rate^n, initialBalance * cap)}, is
+ * applied only when the row is read or touched by a transfer, so the scheduler no longer rewrites balances.
+ * <p>
+ * This is also the single source of the current period for every accrual mode. Periods are counted on the
+ * database clock, the one accrual leases expire by, so nodes with skewed clocks and rows stamped in cluster
+ * mode agree on them. The offset to that clock is refreshed in the background, keeping the database out of
+ * the transfer path.
+ */
+@Component
+public class LazyAccrual {
+
+    private final AccrualLeasesRepository leasesRepository;
+    private final boolean enabled;
+    private final double rate;
+    private final double cap;
+    private final long periodMillis;
+    private volatile long clockOffsetMillis;
+    private volatile boolean clockSynced;
+
+    @Autowired
+    public LazyAccrual(AccrualLeasesRepository leasesRepository,
+                       @Value("${accrual.lazy.enabled:false}") boolean enabled,
+                       @Value("${accrual.rate:1.05}") double rate,
+                       @Value("${accrual.cap:2.07}") double cap,
+                       @Value("${accrual.period-ms:60000}") long periodMillis) {
+        this.leasesRepository = leasesRepository;
+        this.enabled = enabled;
+        this.rate = rate;
+        this.cap = cap;
+        this.periodMillis = periodMillis;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long currentPeriod() {
+        if (!clockSynced) {
+            syncClock();
+        }
+        return Math.floorDiv(System.currentTimeMillis() + clockOffsetMillis, periodMillis);
+    }
+
+    @Scheduled(fixedDelayString = "${accrual.clock-sync-interval-ms:60000}")
+    public void syncClock() {
+        long before = System.currentTimeMillis();
+        long databaseMillis = leasesRepository.currentTimeMillis();
+        long after = System.currentTimeMillis();
+        clockOffsetMillis = databaseMillis - (before + after) / 2;
+        clockSynced = true;
+    }
+
+    public double balanceAt(Client client, long period) {
+        double balance = client.getCurrentBalance();
+        Long accruedIn = client.getAccrualPeriod();
+        double limit = client.getInitialBalance() * cap;
+        if (!enabled || accruedIn == null || period <= accruedIn || balance >= limit) {
+            return balance;
+        }
+        return Math.min(balance * Math.pow(rate, period - accruedIn), limit);
+    }
+
+    /**
+     * Folds the interest owed up to {@code period} into the entity; a no-op when the mode is off.
+     */
+    public void materialize(Client client, long period) {
+        if (!enabled) {
+            return;
+        }
+        Long accruedIn = client.getAccrualPeriod();
+        if (accruedIn != null && accruedIn >= period) {
+            return;
+        }
+        client.setCurrentBalance(balanceAt(client, period));
+        client.setAccrualPeriod(period);
+    }
+}
@@ -0,0 +1,127 @@
+package com.eevan.bankingservice.services;
+
+import com.eevan.bankingservice.entities.BalanceSnapshot;
+import com.eevan.bankingservice.entities.Client;
+import com.eevan.bankingservice.entities.LedgerPosting;
+import com.eevan.bankingservice.repositories.BalanceSnapshotsRepository;
+import com.eevan.bankingservice.repositories.ClientsRepository;
+import com.eevan.bankingservice.repositories.LedgerPostingsRepository;
+import com.eevan.bankingservice.repositories.PendingAmount;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class LedgerService {
+
+    private final LedgerPostingsRepository postingsRepository;
+    private final BalanceSnapshotsRepository snapshotsRepository;
+    private final ClientsRepository clientsRepository;
+    private final LazyAccrual lazyAccrual;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int compactionChunkSize;
+
+    @Autowired
+    public LedgerService(LedgerPostingsRepository postingsRepository,
+                         BalanceSnapshotsRepository snapshotsRepository,
+                         ClientsRepository clientsRepository,
+                         LazyAccrual lazyAccrual,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${ledger.enabled:false}") boolean enabled,
+                         @Value("${ledger.compaction-chunk-size:500}") int compactionChunkSize) {
+        this.postingsRepository = postingsRepository;
+        this.snapshotsRepository = snapshotsRepository;
+        this.clientsRepository = clientsRepository;
+        this.lazyAccrual = lazyAccrual;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.compactionChunkSize = compactionChunkSize;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public LedgerPosting posting(Long clientId, Long counterpartyId, double amount) {
+        return LedgerPosting.builder()
+                .clientId(clientId)
+                .counterpartyId(counterpartyId)
+                .amount(amount)
+                .folded(!enabled)
+                .createdAt(Instant.now())
+                .build();
+    }
+
+    public void record(List<LedgerPosting> postings) {
+        if (!postings.isEmpty()) {
+            postingsRepository.saveAll(postings);
+        }
+    }
+
+    public Map<Long, Double> findPendingAmounts(Collection<Long> clientIds) {
+        if (!enabled || clientIds.isEmpty()) {
+            return Map.of();
+        }
+        return postingsRepository.findPendingAmounts(clientIds)
+                .stream()
+                .collect(Collectors.toMap(PendingAmount::getClientId, PendingAmount::getAmount));
+    }
+
+    public int compact() {
+        if (!enabled) {
+            return 0;
+        }
+        int compacted = 0;
+        long afterId = 0;
+        List<Long> clientIds = postingsRepository.findClientIdsWithPendingPostings(afterId, compactionChunkSize);
+        while (!clientIds.isEmpty()) {
+            List<Long> chunk = clientIds;
+            compacted += transactionTemplate.execute(status -> compactChunk(chunk));
+            afterId = clientIds.get(clientIds.size() - 1);
+            clientIds = postingsRepository.findClientIdsWithPendingPostings(afterId, compactionChunkSize);
+        }
+        if (compacted > 0) {
+            log.info("Ledger compaction folded postings of {} clients", compacted);
+        }
+        return compacted;
+    }
+
+    private int compactChunk(List<Long> clientIds) {
+        Map<Long, Client> clients = clientsRepository.findAllByIdInForUpdate(clientIds)
+                .stream()
+                .collect(Collectors.toMap(Client::getId, Function.identity()));
+        List<PendingAmount> folded = postingsRepository.foldPendingPostings(clientIds);
+
+        long period = lazyAccrual.currentPeriod();
+        clients.values().forEach(client -> lazyAccrual.materialize(client, period));
+
+        Instant now = Instant.now();
+        List<BalanceSnapshot> snapshots = new ArrayList<>(folded.size());
+        for (PendingAmount amount : folded) {
+            Client client = clients.get(amount.getClientId());
+            client.setCurrentBalance(client.getCurrentBalance() + amount.getAmount());
+            snapshots.add(BalanceSnapshot.builder()
+                    .clientId(client.getId())
+                    .balance(client.getCurrentBalance())
+                    .foldedAmount(amount.getAmount())
+                    .createdAt(now)
+                    .build());
+        }
+        clientsRepository.saveAll(clients.values());
+        snapshotsRepository.saveAll(snapshots);
+        return snapshots.size();
+    }
+}
@@ -0,0 +1,59 @@
+package com.eevan.bankingservice.services;
+
+import com.eevan.bankingservice.config.ReadWriteRoutingDataSource;
+import com.eevan.bankingservice.entities.Client;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Keeps reads of a recently changed client on the primary while replicas catch up. Without the pin a
+ * cache reload right after a commit could pick up the old row from a replica and keep it until expiry.
+ */
+@Component
+public class ReadYourWrites {
+
+    private final boolean enabled;
+    private final Cache<Long, Boolean> pinnedIds;
+    private final Cache<String, Boolean> pinnedLogins;
+
+    @Autowired
+    public ReadYourWrites(@Value("${datasource.replicas.urls:}") List<String> replicaUrls,
+                          @Value("${datasource.replicas.read-your-writes-ms:10000}") long windowMillis) {
+        this.enabled = !replicaUrls.isEmpty();
+        this.pinnedIds = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(windowMillis))
+                .build();
+        this.pinnedLogins = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(windowMillis))
+                .build();
+    }
+
+    public void pin(Client client) {
+        if (!enabled) {
+            return;
+        }
+        if (client.getId() != null) {
+            pinnedIds.put(client.getId(), Boolean.TRUE);
+        }
+        if (client.getLogin() != null) {
+            pinnedLogins.put(client.getLogin(), Boolean.TRUE);
+        }
+    }
+
+    public <T> T readById(Long id, Supplier<T> read) {
+        return enabled && pinnedIds.getIfPresent(id) != null ? ReadWriteRoutingDataSource.onPrimary(read) : read.get();
+    }
+
+    public <T> T readByLogin(String login, Supplier<T> read) {
+        return enabled && pinnedLogins.getIfPresent(login) != null
+                ? ReadWriteRoutingDataSource.onPrimary(read)
+                : read.get();
+    }
+}
@@ -0,0 +1,83 @@
+package com.eevan.bankingservice.services;
+
+import com.eevan.bankingservice.dto.TransferResultDto;
+import com.eevan.bankingservice.entities.TransferIdempotencyKey;
+import com.eevan.bankingservice.repositories.TransferIdempotencyKeysRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Outcomes of keyed transfers, stored in the transaction that applied them. Lookups are made after the
+ * payer's row is locked, so a transfer committed on any node with the same payer and key is always seen.
+ */
+@Slf4j
+@Service
+public class TransferIdempotencyKeys {
+
+    private final TransferIdempotencyKeysRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+
+    @Autowired
+    public TransferIdempotencyKeys(TransferIdempotencyKeysRepository repository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${transfer.idempotency.ttl-seconds:86400}") long ttlSeconds) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+    }
+
+    public static String scoped(Long payerId, String idempotencyKey) {
+        return payerId + ":" + idempotencyKey;
+    }
+
+    public Map<String, TransferIdempotencyKey> find(Collection<Long> payerIds, Collection<String> idempotencyKeys) {
+        if (idempotencyKeys.isEmpty()) {
+            return Map.of();
+        }
+        return repository.findAllByPayerIdInAndIdempotencyKeyIn(payerIds, idempotencyKeys)
+                .stream()
+                .collect(Collectors.toMap(key -> scoped(key.getPayerId(), key.getIdempotencyKey()),
+                        Function.identity()));
+    }
+
+    public TransferIdempotencyKey key(String idempotencyKey, TransferResultDto result) {
+        return TransferIdempotencyKey.builder()
+                .payerId(result.getFromAccountId())
+                .idempotencyKey(idempotencyKey)
+                .toAccountId(result.getToAccountId())
+                .amount(result.getAmount())
+                .status(result.getStatus())
+                .message(result.getMessage())
+                .createdAt(Instant.now())
+                .build();
+    }
+
+    public void record(List<TransferIdempotencyKey> keys) {
+        if (!keys.isEmpty()) {
+            repository.saveAll(keys);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${transfer.idempotency.purge-interval-ms:600000}")
+    public void purge() {
+        Integer purged = transactionTemplate.execute(status ->
+                repository.deleteByCreatedAtBefore(Instant.now().minus(ttl)));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.eevan.bankingservice.services;
+
+import com.eevan.bankingservice.dto.TransferRequestDto;
+import com.eevan.bankingservice.dto.TransferResultDto;
+import com.eevan.bankingservice.dto.TransferStatus;
+import com.eevan.bankingservice.utils.IdempotencyKeyConflictException;
+import com.eevan.bankingservice.utils.TransferRejectedException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Front door for single transfers. In pipeline mode transfers are hashed by payer into shards; each
+ * shard has one writer thread that drains its queue and commits up to {@code batch-size} transfers in
+ * a single transaction, so a payer's transfers are applied in arrival order without contending with
+ * each other on row locks. Otherwise transfers run directly on the caller's thread.
+ * <p>
+ * Idempotency keys are scoped to the payer. Each key is stored in the transaction that applies its
+ * transfer, so a retry on any node gets the original outcome; recent keys are also kept in memory, which
+ * lets a retry on the same node wait for a transfer that is still in flight.
+ */
+@Slf4j
+@Service
+public class TransferPipeline {
+
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+    private static final String SHUTTING_DOWN = "Transfer pipeline is shutting down";
+
+    private final TransferService transferService;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Shard[] shards;
+    private final Cache<String, Submission> submissions;
+
+    @Autowired
+    public TransferPipeline(TransferService transferService,
+                            @Value("${transfer.pipeline.enabled:false}") boolean enabled,
+                            @Value("${transfer.pipeline.shards:8}") int shardCount,
+                            @Value("${transfer.pipeline.queue-capacity:10000}") int queueCapacity,
+                            @Value("${transfer.pipeline.batch-size:200}") int batchSize,
+                            @Value("${transfer.idempotency.max-size:1000000}") long idempotencyMaxSize,
+                            @Value("${transfer.idempotency.ttl-seconds:86400}") long idempotencyTtlSeconds) {
+        this.transferService = transferService;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.shards = new Shard[enabled ? shardCount : 0];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard(i, queueCapacity);
+        }
+        this.submissions = Caffeine.newBuilder()
+                .maximumSize(idempotencyMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(idempotencyTtlSeconds))
+                .build();
+    }
+
+    @PostConstruct
+    public void start() {
+        for (Shard shard : shards) {
+            shard.thread.start();
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        for (Shard shard : shards) {
+            shard.running = false;
+        }
+        for (Shard shard : shards) {
+            shard.thread.join(TimeUnit.SECONDS.toMillis(30));
+            shard.rejectQueued();
+        }
+    }
+
+    public CompletableFuture<TransferResultDto> submit(Long fromClientId, Long toClientId, double amount,
+                                                       String idempotencyKey) {
+        TransferRequestDto request = new TransferRequestDto(fromClientId, toClientId, amount);
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return dispatch(request, null);
+        }
+        if (idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            return CompletableFuture.failedFuture(new IdempotencyKeyConflictException(
+                    "Idempotency key should not be longer than " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters"));
+        }
+
+        String key = fromClientId + ":" + idempotencyKey;
+        Submission submission = new Submission(request, new CompletableFuture<>());
+        Submission previous = submissions.asMap().putIfAbsent(key, submission);
+        if (previous != null) {
+            if (!previous.request().equals(request)) {
+                return CompletableFuture.failedFuture(new IdempotencyKeyConflictException());
+            }
+            return previous.result();
+        }
+
+        dispatch(request, idempotencyKey).whenComplete((result, failure) -> {
+            if (failure != null) {
+                // Nothing was committed, so a retry with the same key should really run again
+                submissions.asMap().remove(key, submission);
+                submission.result().completeExceptionally(failure);
+            } else if (result.getStatus() == TransferStatus.IDEMPOTENCY_KEY_CONFLICT) {
+                // The key belongs to a transfer made on another node or before a restart
+                submissions.asMap().remove(key, submission);
+                submission.result().completeExceptionally(new IdempotencyKeyConflictException());
+            } else {
+                submission.result().complete(result);
+            }
+        });
+        return submission.result();
+    }
+
+    private CompletableFuture<TransferResultDto> dispatch(TransferRequestDto request, String idempotencyKey) {
+        if (!enabled) {
+            try {
+                return CompletableFuture.completedFuture(idempotencyKey == null
+                        ? transferService.transfer(request)
+                        : transferService.transfer(request, idempotencyKey));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        PendingTransfer pending = new PendingTransfer(request, idempotencyKey, new CompletableFuture<>());
+        Shard shard = shards[Math.floorMod(Long.hashCode(request.getFromAccountId()), shards.length)];
+        if (!shard.running) {
+            return CompletableFuture.failedFuture(new TransferRejectedException(SHUTTING_DOWN));
+        }
+        if (!shard.queue.offer(pending)) {
+            return CompletableFuture.failedFuture(new TransferRejectedException("Transfer queue is full"));
+        }
+        // stop() may have come in between: if the writer has not taken the transfer, nobody will
+        if (!shard.running && shard.queue.remove(pending)) {
+            return CompletableFuture.failedFuture(new TransferRejectedException(SHUTTING_DOWN));
+        }
+        return pending.result();
+    }
+
+    private void commit(List<PendingTransfer> batch) {
+        try {
+            List<TransferResultDto> results = transferService.transferEach(
+                    batch.stream().map(PendingTransfer::request).toList(),
+                    batch.stream().map(PendingTransfer::idempotencyKey).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(results.get(i));
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to commit {} transfers", batch.size(), e);
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+        }
+    }
+
+    private class Shard implements Runnable {
+        private final BlockingQueue<PendingTransfer> queue;
+        private final Thread thread;
+        private volatile boolean running = true;
+
+        private Shard(int index, int queueCapacity) {
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.thread = new Thread(this, "transfer-shard-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            List<PendingTransfer> batch = new ArrayList<>(batchSize);
+            while (running || !queue.isEmpty()) {
+                try {
+                    PendingTransfer first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    commit(batch);
+                    batch.clear();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            rejectQueued();
+        }
+
+        private void rejectQueued() {
+            PendingTransfer pending;
+            while ((pending = queue.poll()) != null) {
+                pending.result().completeExceptionally(new TransferRejectedException(SHUTTING_DOWN));
+            }
+        }
+    }
+
+    private record PendingTransfer(TransferRequestDto request, String idempotencyKey,
+                                   CompletableFuture<TransferResultDto> result) {
+    }
+
+    private record Submission(TransferRequestDto request, CompletableFuture<TransferResultDto> result) {
+    }
+}
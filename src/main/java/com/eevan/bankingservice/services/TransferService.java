@@ -0,0 +1,364 @@
+package com.eevan.bankingservice.services;
+
+import com.eevan.bankingservice.dto.TransferBatchRequestDto;
+import com.eevan.bankingservice.dto.TransferBatchResponseDto;
+import com.eevan.bankingservice.dto.TransferRequestDto;
+import com.eevan.bankingservice.dto.TransferResultDto;
+import com.eevan.bankingservice.dto.TransferStatus;
+import com.eevan.bankingservice.entities.Client;
+import com.eevan.bankingservice.entities.LedgerPosting;
+import com.eevan.bankingservice.entities.TransferIdempotencyKey;
+import com.eevan.bankingservice.repositories.ClientsRepository;
+import com.eevan.bankingservice.utils.AccountLocks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class TransferService {
+
+    private final ClientsRepository clientsRepository;
+    private final LedgerService ledgerService;
+    private final AccountLocks accountLocks;
+    private final LazyAccrual lazyAccrual;
+    private final BalanceStream balanceStream;
+    private final HotAccounts hotAccounts;
+    private final TransferIdempotencyKeys idempotencyKeys;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer singleTransferTimer;
+    private final Timer batchTransferTimer;
+    private final Timer groupTransferTimer;
+    private final Timer stripeLockWait;
+    private final Timer rowLockWait;
+    private final Map<TransferStatus, Counter> outcomes = new EnumMap<>(TransferStatus.class);
+
+    @Autowired
+    public TransferService(ClientsRepository clientsRepository,
+                           LedgerService ledgerService,
+                           AccountLocks accountLocks,
+                           LazyAccrual lazyAccrual,
+                           BalanceStream balanceStream,
+                           HotAccounts hotAccounts,
+                           TransferIdempotencyKeys idempotencyKeys,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry) {
+        this.clientsRepository = clientsRepository;
+        this.ledgerService = ledgerService;
+        this.accountLocks = accountLocks;
+        this.lazyAccrual = lazyAccrual;
+        this.balanceStream = balanceStream;
+        this.hotAccounts = hotAccounts;
+        this.idempotencyKeys = idempotencyKeys;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.singleTransferTimer = transferTimer("single", meterRegistry);
+        this.batchTransferTimer = transferTimer("batch", meterRegistry);
+        this.groupTransferTimer = transferTimer("group", meterRegistry);
+        this.stripeLockWait = lockWaitTimer("stripe", meterRegistry);
+        this.rowLockWait = lockWaitTimer("row", meterRegistry);
+        for (TransferStatus status : TransferStatus.values()) {
+            outcomes.put(status, Counter.builder("transfer.outcomes")
+                    .description("Transfers by final status")
+                    .tag("status", status.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    public void transferMoney(Long fromClientId, Long toClientId, double amount) {
+        TransferResultDto result = transfer(new TransferRequestDto(fromClientId, toClientId, amount));
+        if (result.getStatus() != TransferStatus.COMPLETED) {
+            throw new IllegalArgumentException(result.getMessage());
+        }
+    }
+
+    public TransferResultDto transfer(TransferRequestDto request) {
+        return singleTransferTimer.record(() -> transfer(null, List.of(request), null, true)).get(0);
+    }
+
+    /**
+     * Keyed transfers are not atomic, so a rejection is stored with its key and replayed like a success.
+     */
+    public TransferResultDto transfer(TransferRequestDto request, String idempotencyKey) {
+        return singleTransferTimer.record(() -> transfer(null, List.of(request),
+                Collections.singletonList(idempotencyKey), false)).get(0);
+    }
+
+    public List<TransferResultDto> transferEach(List<TransferRequestDto> transfers) {
+        return transferEach(transfers, null);
+    }
+
+    /**
+     * @param idempotencyKeys payer-scoped keys aligned with {@code transfers}; entries may be null
+     */
+    public List<TransferResultDto> transferEach(List<TransferRequestDto> transfers, List<String> idempotencyKeys) {
+        return groupTransferTimer.record(() -> transfer(null, transfers, idempotencyKeys, false));
+    }
+
+    public TransferBatchResponseDto transferBatch(TransferBatchRequestDto request) {
+        List<TransferResultDto> results = batchTransferTimer.record(() -> transfer(request.getFromAccountId(),
+                request.getTransfers(), null, request.isAtomic()));
+        int completed = (int) results.stream()
+                .filter(result -> result.getStatus() == TransferStatus.COMPLETED)
+                .count();
+        return new TransferBatchResponseDto(completed, results);
+    }
+
+    private List<TransferResultDto> transfer(Long defaultFromClientId, List<TransferRequestDto> transfers,
+                                             List<String> keys, boolean atomic) {
+        List<TransferResultDto> results = execute(defaultFromClientId, transfers, keys, atomic);
+        results.forEach(result -> outcomes.get(result.getStatus()).increment());
+        balanceStream.changed(changedAccounts(results));
+        return results;
+    }
+
+    private List<TransferResultDto> execute(Long defaultFromClientId, List<TransferRequestDto> transfers,
+                                            List<String> keys, boolean atomic) {
+        List<TransferResultDto> results = transfers.stream()
+                .map(transfer -> validate(defaultFromClientId, transfer))
+                .toList();
+
+        if (atomic && hasFailures(results)) {
+            rollBack(results);
+            return results;
+        }
+
+        Set<Long> payerIds = new TreeSet<>();
+        Set<Long> payeeIds = new TreeSet<>();
+        for (TransferResultDto result : results) {
+            if (result.getStatus() == null) {
+                payerIds.add(result.getFromAccountId());
+                payeeIds.add(result.getToAccountId());
+            }
+        }
+        if (payerIds.isEmpty()) {
+            return results;
+        }
+
+        Set<Long> lockedIds = new TreeSet<>(payerIds);
+        if (!ledgerService.isEnabled()) {
+            payeeIds.stream()
+                    .filter(id -> !hotAccounts.isHot(id))
+                    .forEach(lockedIds::add);
+        }
+
+        long lockStart = System.nanoTime();
+        try (var ignored = accountLocks.lock(lockedIds)) {
+            stripeLockWait.record(System.nanoTime() - lockStart, TimeUnit.NANOSECONDS);
+            transactionTemplate.executeWithoutResult(status -> {
+                long rowLockStart = System.nanoTime();
+                Map<Long, Client> accounts = clientsRepository.findAllByIdInForUpdate(lockedIds)
+                        .stream()
+                        .collect(Collectors.toMap(Client::getId, Function.identity()));
+                rowLockWait.record(System.nanoTime() - rowLockStart, TimeUnit.NANOSECONDS);
+                Map<Long, Double> inSlots = hotAccounts.findSlotTotals(accounts.keySet());
+                Map<Long, Double> balances = currentBalances(accounts, inSlots);
+                Set<Long> existingIds = existingIds(accounts.keySet(), payeeIds);
+                Map<String, TransferIdempotencyKey> usedKeys = usedKeys(payerIds, keys);
+
+                List<LedgerPosting> postings = new ArrayList<>();
+                List<TransferIdempotencyKey> newKeys = new ArrayList<>();
+                for (int i = 0; i < results.size(); i++) {
+                    TransferResultDto result = results.get(i);
+                    if (result.getStatus() != null) {
+                        continue;
+                    }
+                    String key = keys != null ? keys.get(i) : null;
+                    if (key == null) {
+                        apply(result, balances, existingIds, postings);
+                        continue;
+                    }
+                    String scopedKey = TransferIdempotencyKeys.scoped(result.getFromAccountId(), key);
+                    TransferIdempotencyKey used = usedKeys.get(scopedKey);
+                    if (used != null) {
+                        replay(result, used);
+                        continue;
+                    }
+                    apply(result, balances, existingIds, postings);
+                    TransferIdempotencyKey newKey = idempotencyKeys.key(key, result);
+                    usedKeys.put(scopedKey, newKey);
+                    newKeys.add(newKey);
+                }
+
+                if (atomic && hasFailures(results)) {
+                    status.setRollbackOnly();
+                    rollBack(results);
+                    return;
+                }
+                if (!ledgerService.isEnabled()) {
+                    accounts.forEach((id, client) -> client.setCurrentBalance(
+                            rowBalance(id, balances.get(id), inSlots.getOrDefault(id, 0.0))));
+                    clientsRepository.saveAll(accounts.values());
+                    hotAccounts.credit(slotCredits(results, accounts.keySet()));
+                }
+                ledgerService.record(postings);
+                idempotencyKeys.record(newKeys);
+            });
+        }
+        return results;
+    }
+
+    private static Set<Long> changedAccounts(List<TransferResultDto> results) {
+        Set<Long> changed = new HashSet<>();
+        for (TransferResultDto result : results) {
+            if (result.getStatus() == TransferStatus.COMPLETED) {
+                changed.add(result.getFromAccountId());
+                changed.add(result.getToAccountId());
+            }
+        }
+        return changed;
+    }
+
+    private static Timer transferTimer(String mode, MeterRegistry meterRegistry) {
+        return Timer.builder("transfer.duration")
+                .description("Time to validate, lock and apply a transfer request")
+                .tag("mode", mode)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static Timer lockWaitTimer(String lock, MeterRegistry meterRegistry) {
+        return Timer.builder("transfer.lock.wait")
+                .description("Time spent waiting for account locks")
+                .tag("lock", lock)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private Map<Long, Double> currentBalances(Map<Long, Client> accounts, Map<Long, Double> inSlots) {
+        long period = lazyAccrual.currentPeriod();
+        accounts.values().forEach(client -> lazyAccrual.materialize(client, period));
+        Map<Long, Double> pending = ledgerService.findPendingAmounts(accounts.keySet());
+        Map<Long, Double> balances = new HashMap<>();
+        accounts.forEach((id, client) -> balances.put(id, client.getCurrentBalance() + pending.getOrDefault(id, 0.0)
+                + inSlots.getOrDefault(id, 0.0)));
+        return balances;
+    }
+
+    /**
+     * Part of the new balance that stays on the client row. When debits ate into the slots, they are drained
+     * into the row; slots can only have grown since they were summed, so the row does not go negative.
+     */
+    private double rowBalance(Long clientId, double balance, double inSlots) {
+        double rowBalance = balance - inSlots;
+        return rowBalance < 0 ? rowBalance + hotAccounts.drain(clientId) : rowBalance;
+    }
+
+    private static Map<Long, Double> slotCredits(List<TransferResultDto> results, Set<Long> lockedIds) {
+        Map<Long, Double> credits = new HashMap<>();
+        for (TransferResultDto result : results) {
+            if (result.getStatus() == TransferStatus.COMPLETED && !lockedIds.contains(result.getToAccountId())) {
+                credits.merge(result.getToAccountId(), result.getAmount(), Double::sum);
+            }
+        }
+        return credits;
+    }
+
+    /**
+     * Keys already used by the locked payers. Any transaction that stored one of them held the payer's row
+     * lock, so it has committed by now, whichever node ran it.
+     */
+    private Map<String, TransferIdempotencyKey> usedKeys(Set<Long> payerIds, List<String> keys) {
+        Set<String> requested = new HashSet<>();
+        if (keys != null) {
+            keys.stream()
+                    .filter(Objects::nonNull)
+                    .forEach(requested::add);
+        }
+        return new HashMap<>(idempotencyKeys.find(payerIds, requested));
+    }
+
+    private void replay(TransferResultDto result, TransferIdempotencyKey used) {
+        if (!used.getToAccountId().equals(result.getToAccountId()) || used.getAmount() != result.getAmount()) {
+            reject(result, TransferStatus.IDEMPOTENCY_KEY_CONFLICT,
+                    "Idempotency key was already used for a different transfer");
+            return;
+        }
+        result.setStatus(used.getStatus());
+        result.setMessage(used.getMessage());
+    }
+
+    private Set<Long> existingIds(Set<Long> lockedIds, Set<Long> payeeIds) {
+        Set<Long> existingIds = new HashSet<>(lockedIds);
+        List<Long> unlockedPayeeIds = payeeIds.stream()
+                .filter(id -> !lockedIds.contains(id))
+                .toList();
+        if (!unlockedPayeeIds.isEmpty()) {
+            existingIds.addAll(clientsRepository.findExistingIds(unlockedPayeeIds));
+        }
+        return existingIds;
+    }
+
+    private TransferResultDto validate(Long defaultFromClientId, TransferRequestDto transfer) {
+        Long fromClientId = transfer.getFromAccountId() != null ? transfer.getFromAccountId() : defaultFromClientId;
+        TransferResultDto result = new TransferResultDto(fromClientId, transfer.getToAccountId(),
+                transfer.getAmount(), null, null);
+
+        if (fromClientId == null || transfer.getToAccountId() == null) {
+            reject(result, TransferStatus.CLIENT_NOT_FOUND, "Both payer and payee accounts should be set");
+        } else if (fromClientId.equals(transfer.getToAccountId())) {
+            reject(result, TransferStatus.SAME_CLIENT, "Cannot transfer money to the same client");
+        } else if (!(transfer.getAmount() > 0)) {
+            reject(result, TransferStatus.INVALID_AMOUNT, "Amount should be positive");
+        }
+        return result;
+    }
+
+    private void apply(TransferResultDto result, Map<Long, Double> balances, Set<Long> existingIds,
+                       List<LedgerPosting> postings) {
+        Long fromClientId = result.getFromAccountId();
+        Long toClientId = result.getToAccountId();
+        if (!existingIds.contains(fromClientId)) {
+            reject(result, TransferStatus.CLIENT_NOT_FOUND, "Client not found: " + fromClientId);
+            return;
+        }
+        if (!existingIds.contains(toClientId)) {
+            reject(result, TransferStatus.CLIENT_NOT_FOUND, "Client not found: " + toClientId);
+            return;
+        }
+        if (balances.get(fromClientId) < result.getAmount()) {
+            reject(result, TransferStatus.INSUFFICIENT_BALANCE, "Insufficient balance");
+            return;
+        }
+
+        balances.merge(fromClientId, -result.getAmount(), Double::sum);
+        balances.computeIfPresent(toClientId, (id, balance) -> balance + result.getAmount());
+        postings.add(ledgerService.posting(fromClientId, toClientId, -result.getAmount()));
+        postings.add(ledgerService.posting(toClientId, fromClientId, result.getAmount()));
+        result.setStatus(TransferStatus.COMPLETED);
+    }
+
+    private void reject(TransferResultDto result, TransferStatus status, String message) {
+        result.setStatus(status);
+        result.setMessage(message);
+    }
+
+    private boolean hasFailures(List<TransferResultDto> results) {
+        return results.stream()
+                .anyMatch(result -> result.getStatus() != null && result.getStatus() != TransferStatus.COMPLETED);
+    }
+
+    private void rollBack(List<TransferResultDto> results) {
+        for (TransferResultDto result : results) {
+            if (result.getStatus() == null || result.getStatus() == TransferStatus.COMPLETED) {
+                reject(result, TransferStatus.ROLLED_BACK, "Another transfer in the batch has failed");
+            }
+        }
+    }
+}
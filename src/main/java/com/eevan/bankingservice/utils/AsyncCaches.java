@@ -0,0 +1,42 @@
+package com.eevan.bankingservice.utils;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+public final class AsyncCaches {
+
+    private AsyncCaches() {
+    }
+
+    // The loader runs outside the cache's compute block: blocking inside it would pin a virtual thread's carrier.
+    // Concurrent lookups of the same key share the in-flight future, failed loads are not cached, and an
+    // invalidation that races with a load drops the in-flight value instead of letting it land afterwards.
+    public static <K, V> V getOrLoad(AsyncCache<K, V> cache, K key, Function<K, V> loader) {
+        CompletableFuture<V> value = cache.getIfPresent(key);
+        if (value == null) {
+            CompletableFuture<V> loading = new CompletableFuture<>();
+            value = cache.asMap().putIfAbsent(key, loading);
+            if (value == null) {
+                try {
+                    V loaded = loader.apply(key);
+                    loading.complete(loaded);
+                    return loaded;
+                } catch (RuntimeException e) {
+                    loading.completeExceptionally(e);
+                    throw e;
+                }
+            }
+        }
+        try {
+            return value.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.eevan.bankingservice.utils;
+
+public class BalanceStreamRejectedException extends RuntimeException {
+
+    public BalanceStreamRejectedException(String message) {
+        super(message);
+    }
+}
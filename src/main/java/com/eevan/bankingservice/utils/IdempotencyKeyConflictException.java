@@ -0,0 +1,12 @@
+package com.eevan.bankingservice.utils;
+
+public class IdempotencyKeyConflictException extends RuntimeException {
+
+    public IdempotencyKeyConflictException() {
+        super("Idempotency key was already used for a different transfer");
+    }
+
+    public IdempotencyKeyConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,4 @@
+package com.eevan.bankingservice.utils;
+
+public class InvalidCursorException extends RuntimeException {
+}
@@ -0,0 +1,8 @@
+package com.eevan.bankingservice.utils;
+
+public class InvalidSearchRequestException extends RuntimeException {
+
+    public InvalidSearchRequestException(String message) {
+        super(message);
+    }
+}
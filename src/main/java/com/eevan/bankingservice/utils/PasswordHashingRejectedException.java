@@ -0,0 +1,8 @@
+package com.eevan.bankingservice.utils;
+
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
@@ -1,21 +1,58 @@
 package com.eevan.bankingservice.utils;
 
+import com.eevan.bankingservice.services.BalanceStream;
 import com.eevan.bankingservice.services.ClientService;
+import com.eevan.bankingservice.services.LedgerService;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
 @Component
+@EnableAsync
 @EnableScheduling
 public class ScheduledTasksService {
     @Autowired
     private ClientService clientService;
+    @Autowired
+    private LedgerService ledgerService;
+    @Autowired
+    private BalanceStream balanceStream;
+
+    private final ReentrantLock accrualLock = new ReentrantLock();
+    private final ReentrantLock compactionLock = new ReentrantLock();
+
+    @Async
+    @Scheduled(fixedRateString = "${accrual.period-ms:60000}")
+    public void updateClientBalances() {
+        if (!accrualLock.tryLock()) {
+            log.warn("Previous balance update is still running, skipping this one");
+            return;
+        }
+        try {
+            clientService.updateBalance();
+            balanceStream.changedAll();
+        } finally {
+            accrualLock.unlock();
+        }
+    }
 
     @Async
-    @Scheduled(fixedRate = 60000)
-    public synchronized void updateClientBalances() {
-        clientService.updateBalance();
+    @Scheduled(fixedDelayString = "${ledger.compaction-interval-ms:10000}")
+    public void compactLedger() {
+        if (!compactionLock.tryLock()) {
+            return;
+        }
+        try {
+            ledgerService.compact();
+        } finally {
+            compactionLock.unlock();
+        }
     }
 }
@@ -0,0 +1,8 @@
+package com.eevan.bankingservice.utils;
+
+public class TransferRejectedException extends RuntimeException {
+
+    public TransferRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,32 @@
+package com.eevan.bankingservice.config;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FioPatternIndexesTest {
+
+    @Test
+    void createsEveryIndexEvenIfOneFails() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.execute(FioPatternIndexes.STATEMENTS.get(0)))
+                .thenThrow(new SQLException("relation \"clients_surname_pattern_idx\" already exists", "42P07"));
+
+        new FioPatternIndexes(dataSource).create();
+
+        for (String sql : FioPatternIndexes.STATEMENTS) {
+            verify(statement).execute(sql);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.eevan.bankingservice.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private DataSource unreachableReplica;
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        unreachableReplica = mock(DataSource.class);
+        when(unreachableReplica.getConnection()).thenThrow(new SQLException("connection refused"));
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", mock(DataSource.class));
+        replicas.put("replica-1", unreachableReplica);
+        routingDataSource = new ReadWriteRoutingDataSource(mock(DataSource.class), replicas, 1000,
+                new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void routesReadWriteTransactionsToPrimary() {
+        assertEquals("primary", routingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void spreadsReadOnlyTransactionsOverReplicas() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals("replica-0", routingDataSource.determineCurrentLookupKey());
+        assertEquals("replica-1", routingDataSource.determineCurrentLookupKey());
+        assertEquals("replica-0", routingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void keepsPinnedReadsOnPrimary() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Object key = ReadWriteRoutingDataSource.onPrimary(routingDataSource::determineCurrentLookupKey);
+
+        assertEquals("primary", key);
+        assertEquals("replica-0", routingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void dropsUnreachableReplicasFromRotation() {
+        Map<String, DataSource> replicas = Map.of("replica-0", unreachableReplica);
+        routingDataSource = new ReadWriteRoutingDataSource(mock(DataSource.class), replicas, 1000,
+                new SimpleMeterRegistry());
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        routingDataSource.checkReplicas();
+
+        assertEquals("primary", routingDataSource.determineCurrentLookupKey());
+    }
+}
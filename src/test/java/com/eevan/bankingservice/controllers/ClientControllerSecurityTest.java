@@ -0,0 +1,83 @@
+package com.eevan.bankingservice.controllers;
+
+import com.eevan.bankingservice.config.SecurityConfiguration;
+import com.eevan.bankingservice.dto.ClientImportReportDto;
+import com.eevan.bankingservice.mappers.ClientMapper;
+import com.eevan.bankingservice.security.JwtAuthenticationFilter;
+import com.eevan.bankingservice.security.JwtService;
+import com.eevan.bankingservice.services.BalanceStream;
+import com.eevan.bankingservice.services.ClientImportService;
+import com.eevan.bankingservice.services.ClientService;
+import com.eevan.bankingservice.services.TransferPipeline;
+import com.eevan.bankingservice.services.TransferService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ClientController.class)
+@Import({SecurityConfiguration.class, JwtAuthenticationFilter.class, SimpleMeterRegistry.class})
+class ClientControllerSecurityTest {
+
+    private static final String CSV_BODY = "login,password\nivan,secret\n";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean(answer = Answers.RETURNS_MOCKS)
+    private ClientService clientService;
+    @MockBean
+    private TransferService transferService;
+    @MockBean
+    private TransferPipeline transferPipeline;
+    @MockBean
+    private ClientImportService clientImportService;
+    @MockBean
+    private BalanceStream balanceStream;
+    @MockBean
+    private ClientMapper clientMapper;
+    @MockBean
+    private JwtService jwtService;
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    @WithMockUser
+    void forbidsImportToNonAdmins() throws Exception {
+        mockMvc.perform(post("/api/clients/import")
+                        .param("passwordsHashed", "true")
+                        .contentType("text/csv")
+                        .content(CSV_BODY))
+                .andExpect(status().isForbidden());
+
+        verify(clientImportService, never()).importClients(any(), any(), anyBoolean());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void allowsImportToAdmins() throws Exception {
+        when(clientImportService.importClients(any(), any(), anyBoolean()))
+                .thenReturn(new ClientImportReportDto(1, 1, 0, List.of(), false));
+
+        mockMvc.perform(post("/api/clients/import")
+                        .contentType("text/csv")
+                        .content(CSV_BODY))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,67 @@
+package com.eevan.bankingservice.mappers;
+
+import com.eevan.bankingservice.dto.ClientDto;
+import com.eevan.bankingservice.dto.ClientExportDto;
+import com.eevan.bankingservice.dto.ClientSignUpRequestDto;
+import com.eevan.bankingservice.entities.Client;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ClientMapperTest {
+
+    private final ClientMapper clientMapper = Mappers.getMapper(ClientMapper.class);
+
+    @Test
+    void mapsClientToDto() {
+        Client client = Client.builder().id(1L).login("ivanov").password("secret").name("Ivan").surname("Ivanov")
+                .patronymic("Ivanovich").dateOfBirth(LocalDate.of(1990, 1, 1))
+                .phoneNumberMain("79990000000").phoneNumberAdditional("79990000001")
+                .emailMain("ivanov@example.com").emailAdditional("ivan@example.com")
+                .initialBalance(100.0).currentBalance(150.0).build();
+
+        ClientDto dto = clientMapper.toDto(client);
+
+        assertEquals("ivanov", dto.getLogin());
+        assertEquals("secret", dto.getPassword());
+        assertEquals("Ivanovich", dto.getPatronymic());
+        assertEquals(LocalDate.of(1990, 1, 1), dto.getDateOfBirth());
+        assertEquals("79990000001", dto.getPhoneNumberAdditional());
+        assertEquals("ivan@example.com", dto.getEmailAdditional());
+        assertEquals(100.0, dto.getInitialBalance());
+    }
+
+    @Test
+    void exportsClientWithoutCredentials() {
+        Client client = Client.builder().id(1L).login("ivanov").password("secret").surname("Ivanov")
+                .emailMain("ivanov@example.com").initialBalance(100.0).build();
+
+        ClientExportDto dto = clientMapper.toExportDto(client);
+
+        assertEquals(1L, dto.getId());
+        assertEquals("ivanov", dto.getLogin());
+        assertEquals("ivanov@example.com", dto.getEmailMain());
+        assertEquals(100.0, dto.getInitialBalance());
+    }
+
+    @Test
+    void mapsSignUpRequestWithOpeningBalance() {
+        ClientSignUpRequestDto request = new ClientSignUpRequestDto();
+        request.setLogin("ivanov");
+        request.setPassword("secret");
+        request.setSurname("Ivanov");
+        request.setInitialBalance(100.0);
+
+        Client client = clientMapper.toEntity(request);
+
+        assertEquals("ivanov", client.getLogin());
+        assertEquals("Ivanov", client.getSurname());
+        assertEquals(100.0, client.getCurrentBalance());
+        assertNull(client.getPassword());
+        assertNull(client.getId());
+    }
+}
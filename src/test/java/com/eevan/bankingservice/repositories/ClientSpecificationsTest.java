@@ -0,0 +1,53 @@
+package com.eevan.bankingservice.repositories;
+
+import com.eevan.bankingservice.entities.Client;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ClientSpecificationsTest {
+
+    private Root<Client> root;
+    private CriteriaQuery<?> query;
+    private CriteriaBuilder cb;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        root = mock(Root.class);
+        query = mock(CriteriaQuery.class);
+        cb = mock(CriteriaBuilder.class);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void escapesLikeWildcardsInPrefix() {
+        Path<Object> surname = mock(Path.class);
+        when(root.get("surname")).thenReturn(surname);
+
+        ClientSpecifications.startsWith("surname", "50%_\\").toPredicate(root, query, cb);
+
+        verify(cb).like((Path) surname, "50\\%\\_\\\\%", '\\');
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void matchesPhoneInBothColumns() {
+        Path<Object> main = mock(Path.class);
+        Path<Object> additional = mock(Path.class);
+        when(root.get("phoneNumberMain")).thenReturn(main);
+        when(root.get("phoneNumberAdditional")).thenReturn(additional);
+
+        ClientSpecifications.hasPhone("+70000000001").toPredicate(root, query, cb);
+
+        verify(cb).equal(main, "+70000000001");
+        verify(cb).equal(additional, "+70000000001");
+    }
+}
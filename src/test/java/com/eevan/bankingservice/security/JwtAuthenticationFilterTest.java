@@ -0,0 +1,62 @@
+package com.eevan.bankingservice.security;
+
+import com.eevan.bankingservice.entities.Client;
+import com.eevan.bankingservice.services.ClientService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JwtAuthenticationFilterTest {
+
+    private static final String SIGNING_KEY = "53A73E5F1C4E0A2D3B5F2D784E6A1B423D6F247D1F6E5C3A596D635A75327855";
+
+    private final JwtService jwtService = new JwtService(SIGNING_KEY, 100);
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        ClientService clientService = mock(ClientService.class);
+        when(clientService.userDetailsService()).thenReturn(login ->
+                Client.builder().login(login).password("hash").build());
+        filter = new JwtAuthenticationFilter(jwtService, clientService, new SimpleMeterRegistry(), List.of("admin"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void grantsAdminRoleToConfiguredLoginsOnly() throws Exception {
+        assertEquals(List.of("ROLE_ADMIN"), authoritiesOf("admin"));
+        assertEquals(List.of(), authoritiesOf("ivanov"));
+    }
+
+    private List<String> authoritiesOf(String login) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/clients/export");
+        request.addHeader(JwtAuthenticationFilter.HEADER_NAME, JwtAuthenticationFilter.BEARER_PREFIX +
+                jwtService.generateToken(Client.builder().login(login).build()));
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        return SecurityContextHolder.getContext()
+                .getAuthentication()
+                .getAuthorities()
+                .stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+    }
+}
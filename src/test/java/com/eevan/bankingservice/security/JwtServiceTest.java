@@ -0,0 +1,43 @@
+package com.eevan.bankingservice.security;
+
+import com.eevan.bankingservice.entities.Client;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtServiceTest {
+
+    private static final String SIGNING_KEY = "53A73E5F1C4E0A2D3B5F2D784E6A1B423D6F247D1F6E5C3A596D635A75327855";
+
+    private final JwtService jwtService = new JwtService(SIGNING_KEY, 100);
+    private final Client client = Client.builder().login("ivanov").password("hash").build();
+
+    @Test
+    void verifiesTokenOnceAndServesRepeatsFromCache() {
+        String token = jwtService.generateToken(client);
+
+        assertSame(jwtService.verifyToken(token), jwtService.verifyToken(token));
+        assertEquals("ivanov", jwtService.extractLogin(token));
+        assertTrue(jwtService.isTokenValid(token, client));
+    }
+
+    @Test
+    void rejectsTokenOfAnotherClient() {
+        String token = jwtService.generateToken(client);
+
+        assertFalse(jwtService.isTokenValid(token, Client.builder().login("petrov").build()));
+    }
+
+    @Test
+    void rejectsTamperedToken() {
+        String token = jwtService.generateToken(client);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(SignatureException.class, () -> jwtService.verifyToken(tampered));
+    }
+}
@@ -0,0 +1,81 @@
+package com.eevan.bankingservice.services;
+
+import com.eevan.bankingservice.entities.Client;
+import com.eevan.bankingservice.repositories.AccrualLeasesRepository;
+import com.eevan.bankingservice.repositories.ClientsRepository;
+import com.eevan.bankingservice.utils.BalanceStreamRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BalanceStreamTest {
+
+    private ClientsRepository clientsRepository;
+    private BalanceStream balanceStream;
+
+    @BeforeEach
+    void setUp() {
+        clientsRepository = mock(ClientsRepository.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(clientsRepository.findByIdInOrderById(anyCollection())).thenReturn(List.of(
+                Client.builder().id(1L).initialBalance(100.0).currentBalance(100.0).build()));
+        balanceStream = new BalanceStream(clientsRepository, mock(LedgerService.class),
+                new LazyAccrual(mock(AccrualLeasesRepository.class), false, 1.05, 2.07, 60000),
+                mock(HotAccounts.class), transactionManager, new SimpleMeterRegistry(), 60000, 2, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        balanceStream.stop();
+    }
+
+    @Test
+    void coalescesChangesOfSubscribedClients() {
+        balanceStream.subscribe(1L);
+        balanceStream.publishChanges();
+
+        balanceStream.changed(List.of(1L, 2L));
+        balanceStream.changed(List.of(1L));
+        balanceStream.publishChanges();
+        balanceStream.publishChanges();
+
+        verify(clientsRepository, times(2)).findByIdInOrderById(List.of(1L));
+        verify(clientsRepository, never()).findByIdInOrderById(List.of(1L, 2L));
+    }
+
+    @Test
+    void refreshesEverySubscribedClientAfterAccrual() {
+        balanceStream.subscribe(1L);
+        balanceStream.publishChanges();
+
+        balanceStream.changedAll();
+        balanceStream.publishChanges();
+
+        verify(clientsRepository, times(2)).findByIdInOrderById(List.of(1L));
+    }
+
+    @Test
+    void rejectsStreamsBeyondLimit() {
+        balanceStream.subscribe(1L);
+        balanceStream.subscribe(1L);
+
+        assertThrows(BalanceStreamRejectedException.class, () -> balanceStream.subscribe(2L));
+        assertEquals(2, balanceStream.connectionCount());
+    }
+}
@@ -0,0 +1,109 @@
+package com.eevan.bankingservice.services;
+
+import com.eevan.bankingservice.config.ReadWriteRoutingDataSource;
+import com.eevan.bankingservice.entities.Client;
+import com.eevan.bankingservice.repositories.ClientsRepository;
+import com.eevan.bankingservice.utils.ClientNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ClientCacheTest {
+
+    private ClientsRepository clientsRepository;
+    private ClientCache clientCache;
+    private Client client;
+
+    @BeforeEach
+    void setUp() {
+        clientsRepository = mock(ClientsRepository.class);
+        clientCache = new ClientCache(clientsRepository, new ReadYourWrites(List.of(), 10000),
+                mock(PlatformTransactionManager.class), 100, 60);
+        client = Client.builder().id(1L).login("ivanov").emailMain("ivanov@example.com")
+                .phoneNumberMain("79990000000").currentBalance(100.0).build();
+        when(clientsRepository.findByEmailMain("ivanov@example.com")).thenReturn(Optional.of(client));
+        when(clientsRepository.findByIdInOrderById(List.of(1L))).thenReturn(List.of(client));
+    }
+
+    @Test
+    void servesRepeatedEmailLookupsFromCache() {
+        clientCache.findByEmail("ivanov@example.com");
+        Client cached = clientCache.findByEmail("ivanov@example.com");
+
+        assertEquals("ivanov", cached.getLogin());
+        assertNull(cached.getCurrentBalance());
+        verify(clientsRepository, times(1)).findByEmailMain("ivanov@example.com");
+        verify(clientsRepository, times(1)).findByIdInOrderById(List.of(1L));
+    }
+
+    @Test
+    void fallsThroughWhenCachedClientNoLongerHasContact() {
+        clientCache.findByEmail("ivanov@example.com");
+        Client moved = Client.builder().id(1L).login("ivanov").emailMain("new@example.com").build();
+        when(clientsRepository.findByIdInOrderById(List.of(1L))).thenReturn(List.of(moved));
+        when(clientsRepository.findByEmailMain("ivanov@example.com")).thenReturn(Optional.empty());
+        when(clientsRepository.findByEmailMain("new@example.com")).thenReturn(Optional.of(moved));
+
+        clientCache.evict(1L);
+
+        assertThrows(ClientNotFoundException.class, () -> clientCache.findByEmail("ivanov@example.com"));
+        assertEquals("new@example.com", clientCache.findByEmail("new@example.com").getEmailMain());
+    }
+
+    @Test
+    void loadsProfilesFromReplica() throws SQLException {
+        DataSource replica = mock(DataSource.class);
+        Connection replicaConnection = mock(Connection.class);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(mock(DataSource.class),
+                Map.of("replica-0", replica), 1000, new SimpleMeterRegistry());
+        routingDataSource.afterPropertiesSet();
+        List<Connection> connections = new ArrayList<>();
+        when(clientsRepository.findByEmailMain("ivanov@example.com")).thenAnswer(invocation -> {
+            connections.add(routingDataSource.getConnection());
+            return Optional.of(client);
+        });
+        when(clientsRepository.findByIdInOrderById(List.of(1L))).thenAnswer(invocation -> {
+            connections.add(routingDataSource.getConnection());
+            return List.of(client);
+        });
+        DataSource transactionDataSource = mock(DataSource.class);
+        when(transactionDataSource.getConnection()).thenReturn(mock(Connection.class));
+        clientCache = new ClientCache(clientsRepository, new ReadYourWrites(List.of(), 10000),
+                new DataSourceTransactionManager(transactionDataSource), 100, 60);
+
+        clientCache.findByEmail("ivanov@example.com");
+
+        assertEquals(List.of(replicaConnection, replicaConnection), connections);
+    }
+
+    @Test
+    void doesNotCacheMissingClients() {
+        Client deleted = Client.builder().id(2L).emailMain("petrov@example.com").build();
+        when(clientsRepository.findByEmailMain("petrov@example.com")).thenReturn(Optional.of(deleted));
+        when(clientsRepository.findByIdInOrderById(List.of(2L))).thenReturn(List.of());
+
+        assertThrows(ClientNotFoundException.class, () -> clientCache.findByEmail("petrov@example.com"));
+        assertThrows(ClientNotFoundException.class, () -> clientCache.findByEmail("petrov@example.com"));
+
+        verify(clientsRepository, times(2)).findByIdInOrderById(List.of(2L));
+    }
+}
@@ -0,0 +1,193 @@
+package com.eevan.bankingservice.services;
+
+import com.eevan.bankingservice.dto.ClientImportErrorDto;
+import com.eevan.bankingservice.dto.ClientImportReportDto;
+import com.eevan.bankingservice.entities.Client;
+import com.eevan.bankingservice.mappers.ClientMapper;
+import com.eevan.bankingservice.repositories.AccrualLeasesRepository;
+import com.eevan.bankingservice.repositories.ClientsBulkRepository;
+import com.eevan.bankingservice.repositories.ClientsRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ClientImportServiceTest {
+
+    private static final String HEADER = "login,password,name,surname,patronymic,dateOfBirth,phoneNumberMain," +
+            "emailMain,initialBalance";
+    private static final String HASH = "$2a$04$abcdefghijklmnopqrstuuJ7eS0Vz1nA5F0fKqRrCwq0d6N8nV4Cy";
+
+    private ClientsRepository clientsRepository;
+    private ClientsBulkRepository clientsBulkRepository;
+    private ContactUniquenessIndex contactIndex;
+    private ClientImportService importService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        clientsRepository = mock(ClientsRepository.class);
+        clientsBulkRepository = mock(ClientsBulkRepository.class);
+        contactIndex = mock(ContactUniquenessIndex.class);
+        importService = importService(100);
+        when(clientsBulkRepository.insertSkippingConflicts(any())).thenAnswer(invocation -> {
+            Map<String, Long> ids = new HashMap<>();
+            for (Client client : (List<Client>) invocation.getArgument(0)) {
+                if (!client.getLogin().equals("raced")) {
+                    ids.put(client.getLogin(), (long) ids.size() + 1);
+                }
+            }
+            return ids;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.stop();
+    }
+
+    @Test
+    void importsCsvAndReportsBadLines() throws IOException {
+        ClientImportReportDto report = importCsv(false,
+                "ivanov,secret,Ivan,Ivanov,,01/02/1990,+70000000001,ivanov@example.com,100",
+                "",
+                "petrov,secret,P,Petrov,,01/02/1990,+70000000002,petrov@example.com,-5",
+                "sidorov,secret,Sidor,Sidorov,,not-a-date,+70000000003,sidorov@example.com,100");
+
+        assertEquals(3, report.getLines());
+        assertEquals(1, report.getImported());
+        assertEquals(2, report.getRejected());
+        ClientImportErrorDto invalid = report.getErrors().get(0);
+        assertEquals(4, invalid.getLine());
+        assertEquals("petrov", invalid.getLogin());
+        assertEquals("Initial balance should be positive; Name should be between 2 and 30 characters",
+                invalid.getMessage());
+        assertEquals(5, report.getErrors().get(1).getLine());
+        assertFalse(report.isErrorsTruncated());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void hashesPasswordsAndKeepsInitialBalance() throws IOException {
+        importNdjson(false, "{\"login\":\"ivanov\",\"password\":\"secret\",\"name\":\"Ivan\",\"surname\":\"Ivanov\"," +
+                "\"dateOfBirth\":\"01/02/1990\",\"phoneNumberMain\":\"+70000000001\"," +
+                "\"emailMain\":\"ivanov@example.com\",\"initialBalance\":100.0}");
+
+        ArgumentCaptor<List<Client>> clients = ArgumentCaptor.forClass(List.class);
+        verify(clientsBulkRepository).insertSkippingConflicts(clients.capture());
+        Client client = clients.getValue().get(0);
+        assertTrue(client.getPassword().startsWith("$2a$04$"));
+        assertEquals(100.0, client.getCurrentBalance());
+        assertEquals(LocalDate.of(1990, 2, 1), client.getDateOfBirth());
+    }
+
+    @Test
+    void rejectsRepeatedAndTakenContacts() throws IOException {
+        when(clientsRepository.findExistingEmails(anyCollection())).thenReturn(List.of("taken@example.com"));
+
+        ClientImportReportDto report = importCsv(false,
+                "ivanov,secret,Ivan,Ivanov,,01/02/1990,+70000000001,ivanov@example.com,100",
+                "ivanov2,secret,Ivan,Ivanov,,01/02/1990,+70000000001,ivanov2@example.com,100",
+                "petrov,secret,Petr,Petrov,,01/02/1990,+70000000002,taken@example.com,100",
+                "raced,secret,Petr,Petrov,,01/02/1990,+70000000003,raced@example.com,100");
+
+        assertEquals(1, report.getImported());
+        assertEquals(List.of("Phone number is repeated in the file",
+                        "User with the same email is existing",
+                        "User with the same login, email or phone number is existing"),
+                report.getErrors().stream().map(ClientImportErrorDto::getMessage).toList());
+    }
+
+    @Test
+    void checksTakenPhonesEvenWhenIndexHasNotSeenThem() throws IOException {
+        when(clientsRepository.findExistingPhones(anyCollection())).thenReturn(List.of("+70000000002"));
+
+        ClientImportReportDto report = importCsv(false,
+                "petrov,secret,Petr,Petrov,,01/02/1990,+70000000002,petrov@example.com,100");
+
+        assertEquals(0, report.getImported());
+        assertEquals("User with the same phone number is existing", report.getErrors().get(0).getMessage());
+    }
+
+    @Test
+    void readsQuotedCsvHeader() throws IOException {
+        ClientImportReportDto report = importService.importClients(stream("\"login\",\"password\",\"name\"," +
+                        "\"surname\",\"patronymic\",\"dateOfBirth\",\"phoneNumberMain\",\"emailMain\"," +
+                        "\"initialBalance\"\n" +
+                        "ivanov,secret,Ivan,Ivanov,,01/02/1990,+70000000001,ivanov@example.com,100"),
+                ClientImportService.Format.CSV, false);
+
+        assertEquals(1, report.getImported());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void storesPrehashedPasswordsAsIs() throws IOException {
+        ClientImportReportDto report = importCsv(true,
+                "ivanov," + HASH + ",Ivan,Ivanov,,01/02/1990,+70000000001,ivanov@example.com,100",
+                "petrov,plain,Petr,Petrov,,01/02/1990,+70000000002,petrov@example.com,100");
+
+        ArgumentCaptor<List<Client>> clients = ArgumentCaptor.forClass(List.class);
+        verify(clientsBulkRepository).insertSkippingConflicts(clients.capture());
+        assertEquals(HASH, clients.getValue().get(0).getPassword());
+        assertEquals("Password should be a BCrypt hash", report.getErrors().get(0).getMessage());
+    }
+
+    @Test
+    void truncatesReportedErrors() throws IOException {
+        importService.stop();
+        importService = importService(1);
+
+        ClientImportReportDto report = importCsv(false, "x", "y", "z");
+
+        assertEquals(3, report.getRejected());
+        assertEquals(1, report.getErrors().size());
+        assertTrue(report.isErrorsTruncated());
+    }
+
+    private ClientImportService importService(int maxReportedErrors) {
+        return new ClientImportService(clientsRepository, clientsBulkRepository,
+                Mappers.getMapper(ClientMapper.class), Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper().findAndRegisterModules(), contactIndex, mock(FioPrefixIndex.class),
+                new LazyAccrual(mock(AccrualLeasesRepository.class), false, 1.05, 2.07, 60000),
+                new SimpleMeterRegistry(), 4, 2, 2, maxReportedErrors);
+    }
+
+    private ClientImportReportDto importCsv(boolean passwordsHashed, String... lines) throws IOException {
+        return importService.importClients(csv(lines), ClientImportService.Format.CSV, passwordsHashed);
+    }
+
+    private ClientImportReportDto importNdjson(boolean passwordsHashed, String... lines) throws IOException {
+        return importService.importClients(stream(String.join("\n", lines)), ClientImportService.Format.NDJSON,
+                passwordsHashed);
+    }
+
+    private static ByteArrayInputStream csv(String... lines) {
+        return stream(HEADER + "\n" + String.join("\n", lines));
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,227 @@
+package com.eevan.bankingservice.services;
+
+import com.eevan.bankingservice.config.ReadWriteRoutingDataSource;
+import com.eevan.bankingservice.dto.ClientSearchRequestDto;
+import com.eevan.bankingservice.entities.Client;
+import com.eevan.bankingservice.repositories.ClientsRepository;
+import com.eevan.bankingservice.utils.ClientNotFoundException;
+import com.eevan.bankingservice.utils.InvalidSearchRequestException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ClientServiceTest {
+
+    private ClientsRepository clientsRepository;
+    private EntityManager entityManager;
+    private ClientCache clientCache;
+    private FioPrefixIndex fioIndex;
+    private ClientService clientService;
+    private Client client;
+
+    @BeforeEach
+    void setUp() {
+        clientsRepository = mock(ClientsRepository.class);
+        entityManager = mock(EntityManager.class);
+        clientCache = mock(ClientCache.class);
+        fioIndex = mock(FioPrefixIndex.class);
+        clientService = clientService(mock(PlatformTransactionManager.class));
+        client = Client.builder().id(1L).login("ivanov").emailMain("ivanov@example.com").build();
+        when(clientsRepository.findByLogin("ivanov")).thenReturn(Optional.of(client));
+        when(clientsRepository.findById(1)).thenReturn(Optional.of(client));
+    }
+
+    @Test
+    void servesRepeatedPrincipalLookupsFromCache() {
+        UserDetailsService userDetailsService = clientService.userDetailsService();
+
+        userDetailsService.loadUserByUsername("ivanov");
+        userDetailsService.loadUserByUsername("ivanov");
+
+        verify(clientsRepository, times(1)).findByLogin("ivanov");
+        assertEquals(1, clientService.principalCache().stats().hitCount());
+    }
+
+    @Test
+    void loadsPrincipalFromReplica() throws SQLException {
+        DataSource replica = mock(DataSource.class);
+        Connection replicaConnection = mock(Connection.class);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(mock(DataSource.class),
+                Map.of("replica-0", replica), 1000, new SimpleMeterRegistry());
+        routingDataSource.afterPropertiesSet();
+        List<Connection> connections = new ArrayList<>();
+        when(clientsRepository.findByLogin("ivanov")).thenAnswer(invocation -> {
+            connections.add(routingDataSource.getConnection());
+            return Optional.of(client);
+        });
+        DataSource transactionDataSource = mock(DataSource.class);
+        when(transactionDataSource.getConnection()).thenReturn(mock(Connection.class));
+        clientService = clientService(new DataSourceTransactionManager(transactionDataSource));
+
+        clientService.userDetailsService().loadUserByUsername("ivanov");
+
+        assertEquals(List.of(replicaConnection), connections);
+    }
+
+    @Test
+    void evictsPrincipalOnContactChange() {
+        UserDetailsService userDetailsService = clientService.userDetailsService();
+
+        userDetailsService.loadUserByUsername("ivanov");
+        clientService.changeMainEmail(1, "new@example.com");
+        userDetailsService.loadUserByUsername("ivanov");
+
+        verify(clientsRepository, times(2)).findByLogin("ivanov");
+        verify(clientCache).evict(1L);
+    }
+
+    @Test
+    void storesUpgradedPasswordHashAndEvictsPrincipal() {
+        UserDetailsService userDetailsService = clientService.userDetailsService();
+        userDetailsService.loadUserByUsername("ivanov");
+
+        clientService.updatePassword(client, "$2a$12$upgraded");
+        userDetailsService.loadUserByUsername("ivanov");
+
+        assertEquals("$2a$12$upgraded", client.getPassword());
+        verify(clientsRepository).save(client);
+        verify(clientsRepository, times(3)).findByLogin("ivanov");
+    }
+
+    @Test
+    void doesNotCacheFailedPrincipalLookups() {
+        UserDetailsService userDetailsService = clientService.userDetailsService();
+        when(clientsRepository.findByLogin("unknown")).thenReturn(Optional.empty());
+
+        assertThrows(ClientNotFoundException.class, () -> userDetailsService.loadUserByUsername("unknown"));
+        assertThrows(ClientNotFoundException.class, () -> userDetailsService.loadUserByUsername("unknown"));
+
+        verify(clientsRepository, times(2)).findByLogin("unknown");
+    }
+
+    @Test
+    void checksContactsAcrossColumnsEvenWhenIndexHasNotSeenThem() {
+        when(clientsRepository.existsByPhoneNumberMainOrPhoneNumberAdditional("+70000000001", "+70000000001"))
+                .thenReturn(true);
+
+        assertThrows(RuntimeException.class, () -> clientService.changeMainPhone(1, "+70000000001"));
+        verify(clientsRepository, never()).save(client);
+    }
+
+    @Test
+    void searchesOneSliceWithIdAsSingleTieBreaker() {
+        ClientSearchRequestDto request = new ClientSearchRequestDto();
+        request.setSurname("Ива");
+        request.setSortBy("surname");
+        request.setPage(2);
+        request.setSize(10);
+
+        clientService.findClients(request);
+        request.setSortBy("id");
+        clientService.findClients(request);
+
+        verify(clientsRepository).findSlice(any(), eq(Sort.by("surname").and(Sort.by("id"))), eq(20L), eq(10));
+        verify(clientsRepository).findSlice(any(), eq(Sort.by("id")), eq(20L), eq(10));
+    }
+
+    @Test
+    void rejectsUnknownSortFieldAndOversizedPages() {
+        ClientSearchRequestDto request = new ClientSearchRequestDto();
+        request.setSortBy("password");
+        assertThrows(InvalidSearchRequestException.class, () -> clientService.findClients(request));
+
+        request.setSortBy("id");
+        request.setSize(1001);
+        assertThrows(InvalidSearchRequestException.class, () -> clientService.findClients(request));
+    }
+
+    @Test
+    void continuesBirthdateSearchFromCursor() {
+        LocalDate after = LocalDate.of(1990, 1, 1);
+        Client first = Client.builder().id(5L).dateOfBirth(LocalDate.of(1991, 1, 1)).build();
+        Client second = Client.builder().id(3L).dateOfBirth(LocalDate.of(1992, 1, 1)).build();
+        Client third = Client.builder().id(4L).dateOfBirth(LocalDate.of(1992, 1, 1)).build();
+        when(clientsRepository.findByDateOfBirthAfterKeyset(after, after, 0, Limit.of(3)))
+                .thenReturn(List.of(first, second, third));
+
+        ClientPage page = clientService.findClientByBirthdate(after, null, 2);
+        clientService.findClientByBirthdate(after, page.nextCursor(), 2);
+
+        assertEquals(List.of(first, second), page.clients());
+        verify(clientsRepository).findByDateOfBirthAfterKeyset(after, LocalDate.of(1992, 1, 1), 3, Limit.of(3));
+    }
+
+    @Test
+    void returnsNoCursorOnLastPage() {
+        when(clientsRepository.findByFIOKeyset("", "Ива", "", "", 0, Limit.of(3))).thenReturn(List.of(client));
+
+        ClientPage page = clientService.findClientByFIO("", "Ива", "", null, 2);
+
+        assertEquals(List.of(client), page.clients());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void dropsIndexEntriesOfMissingClientsAndRepeatsLookup() {
+        FioPrefixIndex.Entry found = new FioPrefixIndex.Entry(1L, "Иванов", "ИВАН", "ИВАНОВ", null);
+        FioPrefixIndex.Entry missing = new FioPrefixIndex.Entry(2L, "Иванов", "ИВАН", "ИВАНОВ", null);
+        when(fioIndex.find("Иван", "Иванов", "%"))
+                .thenReturn(Optional.of(List.of(found, missing)), Optional.of(List.of(found)));
+        when(clientsRepository.findByIdInOrderById(List.of(1L, 2L))).thenReturn(List.of(client));
+        when(clientsRepository.findByIdInOrderById(List.of(1L))).thenReturn(List.of(client));
+
+        List<Client> clients = clientService.findClientByFIO("Иван", "Иванов", "%", 0, 10);
+
+        assertEquals(List.of(client), clients);
+        verify(fioIndex).remove(List.of(missing));
+    }
+
+    @Test
+    void detachesEachExportedClient() {
+        Client other = Client.builder().id(2L).login("petrov").build();
+        when(clientsRepository.streamAllByOrderById()).thenReturn(Stream.of(client, other));
+        List<Client> exported = new ArrayList<>();
+
+        clientService.exportClients(exported::add);
+
+        assertEquals(List.of(client, other), exported);
+        verify(entityManager).detach(client);
+        verify(entityManager).detach(other);
+    }
+
+    private ClientService clientService(PlatformTransactionManager transactionManager) {
+        return new ClientService(clientsRepository, entityManager,
+                mock(InterestAccrualService.class), mock(LedgerService.class), mock(HotAccounts.class),
+                mock(ContactUniquenessIndex.class), fioIndex,
+                clientCache, new ReadYourWrites(List.of(), 10000), transactionManager, 100, 60);
+    }
+}
@@ -0,0 +1,108 @@
+package com.eevan.bankingservice.services;
+
+import com.eevan.bankingservice.repositories.ClientNames;
+import com.eevan.bankingservice.repositories.ClientsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FioPrefixIndexTest {
+
+    private ClientsRepository clientsRepository;
+    private FioPrefixIndex index;
+
+    @BeforeEach
+    void setUp() {
+        clientsRepository = mock(ClientsRepository.class);
+        when(clientsRepository.findByIdGreaterThanOrderById(anyLong(), any(Limit.class), eq(ClientNames.class)))
+                .thenReturn(List.of());
+        index = new FioPrefixIndex(clientsRepository, true, 1, 100, 10);
+        index.load();
+        index.add(1L, "Иван", "Иванов", "Иванович");
+        index.add(2L, "Пётр", "Иванова", "Петрович");
+        index.add(3L, "Иван", "Петров", null);
+    }
+
+    @Test
+    void matchesPrefixesIgnoringCase() {
+        assertEquals(List.of(1L), ids(index.find("иван", "ИВАН%", "%")));
+        assertEquals(List.of(2L), ids(index.find("%", "иванова", "петр%")));
+    }
+
+    @Test
+    void neverMatchesMissingPatronymic() {
+        assertEquals(List.of(), ids(index.find("Иван", "Петров", "%")));
+    }
+
+    @Test
+    void fallsBackForUnsupportedPatternsAndTooManyMatches() {
+        assertTrue(index.find("И_ан", "Иванов", "%").isEmpty());
+        assertTrue(index.find("%", "%", "%").isEmpty());
+    }
+
+    @Test
+    void rescansIdsBelowHighWaterMark() {
+        ClientNames committedFirst = names(20L, "Сидоров");
+        ClientNames committedLate = names(15L, "Кузнецов");
+        when(clientsRepository.findByIdGreaterThanOrderById(eq(0L), any(Limit.class), eq(ClientNames.class)))
+                .thenReturn(List.of(committedFirst));
+        index.refresh();
+        when(clientsRepository.findByIdGreaterThanOrderById(eq(10L), any(Limit.class), eq(ClientNames.class)))
+                .thenReturn(List.of(committedLate, committedFirst));
+        index.refresh();
+
+        assertEquals(List.of(15L), ids(index.find("%", "Кузнецов", "%")));
+        assertEquals(List.of(20L), ids(index.find("%", "Сидоров", "%")));
+    }
+
+    @Test
+    void addsOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.add(4L, "Анна", "Смирнова", "Сергеевна");
+            assertEquals(List.of(), ids(index.find("%", "Смирнова", "%")));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertEquals(List.of(4L), ids(index.find("%", "Смирнова", "%")));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void removesUnresolvedEntries() {
+        index.remove(index.find("%", "Петров", "%").orElseThrow());
+
+        assertEquals(List.of(), ids(index.find("%", "Петров", "%")));
+    }
+
+    private static ClientNames names(long id, String surname) {
+        ClientNames names = mock(ClientNames.class);
+        when(names.getId()).thenReturn(id);
+        when(names.getName()).thenReturn("Иван");
+        when(names.getSurname()).thenReturn(surname);
+        when(names.getPatronymic()).thenReturn("Иванович");
+        return names;
+    }
+
+    private List<Long> ids(Optional<List<FioPrefixIndex.Entry>> entries) {
+        return entries.orElseThrow()
+                .stream()
+                .map(FioPrefixIndex.Entry::id)
+                .sorted()
+                .toList();
+    }
+}
@@ -0,0 +1,94 @@
+package com.eevan.bankingservice.services;
+
+import com.eevan.bankingservice.entities.Client;
+import com.eevan.bankingservice.repositories.AccrualLeasesRepository;
+import com.eevan.bankingservice.repositories.BalanceSlotsRepository;
+import com.eevan.bankingservice.repositories.ClientsRepository;
+import com.eevan.bankingservice.repositories.PendingAmount;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HotAccountsTest {
+
+    private BalanceSlotsRepository slotsRepository;
+    private ClientsRepository clientsRepository;
+    private HotAccounts hotAccounts;
+
+    @BeforeEach
+    void setUp() {
+        slotsRepository = mock(BalanceSlotsRepository.class);
+        clientsRepository = mock(ClientsRepository.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        hotAccounts = new HotAccounts(slotsRepository, clientsRepository,
+                new LazyAccrual(mock(AccrualLeasesRepository.class), false, 1.05, 2.07, 60000), transactionManager,
+                List.of(7L), 4);
+    }
+
+    @Test
+    void queriesSlotsOfHotAccountsOnly() {
+        when(slotsRepository.findSlotTotals(List.of(7L))).thenReturn(List.of(amount(7L, 30.0)));
+
+        assertEquals(Map.of(7L, 30.0), hotAccounts.findSlotTotals(List.of(1L, 7L)));
+        assertEquals(Map.of(), hotAccounts.findSlotTotals(List.of(1L, 2L)));
+        verify(slotsRepository, never()).findSlotTotals(List.of(1L, 2L));
+    }
+
+    @Test
+    void creditsOneSlotPerAccount() {
+        hotAccounts.credit(Map.of(7L, 20.0));
+
+        verify(slotsRepository).credit(eq(7L), anyInt(), eq(20.0));
+    }
+
+    @Test
+    void foldsSlotsIntoClientRow() {
+        Client merchant = Client.builder().id(7L).initialBalance(100.0).currentBalance(100.0).build();
+        when(clientsRepository.findAllByIdInForUpdate(Set.of(7L))).thenReturn(List.of(merchant));
+        when(slotsRepository.drain(Set.of(7L))).thenReturn(List.of(amount(7L, 45.0)));
+
+        assertEquals(1, hotAccounts.fold());
+        assertEquals(145.0, merchant.getCurrentBalance());
+        verify(clientsRepository).saveAll(any());
+    }
+
+    @Test
+    void rejectsLazyAccrual() {
+        LazyAccrual lazyAccrual = new LazyAccrual(mock(AccrualLeasesRepository.class), true, 1.05, 2.07, 60000);
+
+        assertThrows(IllegalStateException.class, () -> new HotAccounts(slotsRepository, clientsRepository,
+                lazyAccrual, mock(PlatformTransactionManager.class), List.of(7L), 4));
+        new HotAccounts(slotsRepository, clientsRepository, lazyAccrual, mock(PlatformTransactionManager.class),
+                List.of(), 4);
+    }
+
+    private static PendingAmount amount(Long clientId, Double amount) {
+        return new PendingAmount() {
+            @Override
+            public Long getClientId() {
+                return clientId;
+            }
+
+            @Override
+            public Double getAmount() {
+                return amount;
+            }
+        };
+    }
+}
@@ -0,0 +1,180 @@
+package com.eevan.bankingservice.services;
+
+import com.eevan.bankingservice.entities.AccrualLease;
+import com.eevan.bankingservice.repositories.AccrualLeasesRepository;
+import com.eevan.bankingservice.repositories.ClientsRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InterestAccrualServiceTest {
+
+    private ClientsRepository clientsRepository;
+    private AccrualLeases accrualLeases;
+    private LazyAccrual lazyAccrual;
+    private InterestAccrualService accrualService;
+
+    @BeforeEach
+    void setUp() {
+        clientsRepository = mock(ClientsRepository.class);
+        accrualLeases = mock(AccrualLeases.class);
+        lazyAccrual = spy(new LazyAccrual(mock(AccrualLeasesRepository.class), false, 1.05, 2.07, 60000));
+        accrualService = new InterestAccrualService(clientsRepository, mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry(), accrualLeases, lazyAccrual, 2, 1, 1.05, 2.07);
+        when(clientsRepository.accrueInterest(anyList(), anyDouble(), anyDouble()))
+                .thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).size());
+    }
+
+    @Test
+    void accruesInKeysetChunks() {
+        when(clientsRepository.findAccrualCandidates(0L, 2.07, 2)).thenReturn(List.of(1L, 2L));
+        when(clientsRepository.findAccrualCandidates(2L, 2.07, 2)).thenReturn(List.of(5L));
+        when(clientsRepository.findAccrualCandidates(5L, 2.07, 2)).thenReturn(List.of());
+        when(clientsRepository.lockForAccrual(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        AccrualRunStats stats = accrualService.accrue();
+
+        assertEquals(2, stats.getChunks());
+        assertEquals(3, stats.getRowsTouched());
+        assertEquals(0, stats.getRowsDeferred());
+        verify(clientsRepository).accrueInterest(List.of(1L, 2L), 1.05, 2.07);
+        verify(clientsRepository).accrueInterest(List.of(5L), 1.05, 2.07);
+    }
+
+    @Test
+    void retriesRowsSkippedByLockedTransfers() {
+        when(clientsRepository.findAccrualCandidates(0L, 2.07, 2)).thenReturn(List.of(1L, 2L));
+        when(clientsRepository.findAccrualCandidates(2L, 2.07, 2)).thenReturn(List.of());
+        when(clientsRepository.lockForAccrual(List.of(1L, 2L))).thenReturn(List.of(1L));
+        when(clientsRepository.lockForAccrual(List.of(2L))).thenReturn(List.of(2L));
+
+        AccrualRunStats stats = accrualService.accrue();
+
+        assertEquals(2, stats.getRowsTouched());
+        assertEquals(0, stats.getRowsDeferred());
+        verify(clientsRepository).accrueInterest(eq(List.of(2L)), anyDouble(), anyDouble());
+    }
+
+    @Test
+    void reportsRowsStillLockedAfterRetries() {
+        when(clientsRepository.findAccrualCandidates(0L, 2.07, 2)).thenReturn(List.of(1L, 2L));
+        when(clientsRepository.findAccrualCandidates(2L, 2.07, 2)).thenReturn(List.of());
+        when(clientsRepository.lockForAccrual(List.of(1L, 2L))).thenReturn(List.of(1L));
+        when(clientsRepository.lockForAccrual(List.of(2L))).thenReturn(List.of());
+
+        AccrualRunStats stats = accrualService.accrue();
+
+        assertEquals(1, stats.getRowsTouched());
+        assertEquals(1, stats.getRowsDeferred());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void accruesOnlyLeasedRangesInClusterMode() {
+        AccrualLease first = lease(1L, 0L, 10L);
+        AccrualLease second = lease(2L, 10L, 20L);
+        when(accrualLeases.isEnabled()).thenReturn(true);
+        doReturn(7L).when(lazyAccrual).currentPeriod();
+        when(clientsRepository.findMaxId()).thenReturn(15L);
+        when(accrualLeases.claim(7L)).thenReturn(Optional.of(first), Optional.of(second), Optional.empty());
+        when(accrualLeases.renew(any())).thenReturn(true);
+        when(clientsRepository.findAccrualCandidatesInRange(0L, 10L, 7L, 2.07, 2)).thenReturn(List.of(3L));
+        when(clientsRepository.findAccrualCandidatesInRange(3L, 10L, 7L, 2.07, 2)).thenReturn(List.of());
+        when(clientsRepository.findAccrualCandidatesInRange(10L, 20L, 7L, 2.07, 2)).thenReturn(List.of());
+        when(clientsRepository.lockForAccrual(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(clientsRepository.accrueInterestForPeriod(anyList(), anyDouble(), anyDouble(), anyLong(), anyLong()))
+                .thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).size());
+
+        AccrualRunStats stats = accrualService.accrue();
+
+        assertEquals(2, stats.getRanges());
+        assertEquals(1, stats.getRowsTouched());
+        verify(accrualLeases).plan(7L, 15L);
+        verify(clientsRepository).accrueInterestForPeriod(List.of(3L), 1.05, 2.07, 7L, 1L);
+        verify(clientsRepository, never()).accrueInterest(anyList(), anyDouble(), anyDouble());
+        verify(accrualLeases).complete(first);
+        verify(accrualLeases).complete(second);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void takesOverLeaseThatExpiredInEarlierPeriod() {
+        AccrualLease expired = lease(1L, 0L, 10L);
+        expired.setPeriod(5L);
+        AccrualLease current = lease(2L, 0L, 10L);
+        when(accrualLeases.isEnabled()).thenReturn(true);
+        doReturn(7L).when(lazyAccrual).currentPeriod();
+        when(accrualLeases.claim(7L)).thenReturn(Optional.of(expired), Optional.of(current), Optional.empty());
+        when(accrualLeases.renew(any())).thenReturn(true);
+        when(clientsRepository.findAccrualCandidatesInRange(0L, 10L, 7L, 2.07, 2))
+                .thenReturn(List.of(3L), List.of());
+        when(clientsRepository.findAccrualCandidatesInRange(3L, 10L, 7L, 2.07, 2)).thenReturn(List.of());
+        when(clientsRepository.lockForAccrual(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(clientsRepository.accrueInterestForPeriod(anyList(), anyDouble(), anyDouble(), anyLong(), anyLong()))
+                .thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).size());
+
+        AccrualRunStats stats = accrualService.accrue();
+
+        assertEquals(2, stats.getRanges());
+        assertEquals(1, stats.getRowsTouched());
+        verify(clientsRepository).accrueInterestForPeriod(List.of(3L), 1.05, 2.07, 7L, 3L);
+        verify(accrualLeases).complete(expired);
+        verify(accrualLeases).complete(current);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void abandonsRangeWhenLeaseIsLost() {
+        AccrualLease lease = lease(1L, 0L, 10L);
+        when(accrualLeases.isEnabled()).thenReturn(true);
+        doReturn(7L).when(lazyAccrual).currentPeriod();
+        when(accrualLeases.claim(7L)).thenReturn(Optional.of(lease), Optional.empty());
+        when(accrualLeases.renew(lease)).thenReturn(false);
+        when(clientsRepository.findAccrualCandidatesInRange(0L, 10L, 7L, 2.07, 2)).thenReturn(List.of(1L, 2L));
+        when(clientsRepository.lockForAccrual(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        accrualService.accrue();
+
+        verify(clientsRepository, never()).findAccrualCandidatesInRange(2L, 10L, 7L, 2.07, 2);
+        verify(accrualLeases, never()).complete(any());
+    }
+
+    @Test
+    void leavesRangeOpenWhileRowsStayLocked() {
+        AccrualLease lease = lease(1L, 0L, 10L);
+        when(accrualLeases.isEnabled()).thenReturn(true);
+        doReturn(7L).when(lazyAccrual).currentPeriod();
+        when(accrualLeases.claim(7L)).thenReturn(Optional.of(lease));
+        when(accrualLeases.renew(lease)).thenReturn(true);
+        when(clientsRepository.findAccrualCandidatesInRange(0L, 10L, 7L, 2.07, 2)).thenReturn(List.of(1L));
+        when(clientsRepository.findAccrualCandidatesInRange(1L, 10L, 7L, 2.07, 2)).thenReturn(List.of());
+        when(clientsRepository.lockForAccrual(anyList())).thenReturn(List.of());
+
+        AccrualRunStats stats = accrualService.accrue();
+
+        assertEquals(1, stats.getRanges());
+        assertEquals(1, stats.getRowsDeferred());
+        verify(accrualLeases, never()).complete(any());
+    }
+
+    private static AccrualLease lease(long id, long rangeStart, long rangeEnd) {
+        return AccrualLease.builder().id(id).period(7L).rangeStart(rangeStart).rangeEnd(rangeEnd).build();
+    }
+}
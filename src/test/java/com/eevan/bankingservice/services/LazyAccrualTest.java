@@ -0,0 +1,89 @@
+package com.eevan.bankingservice.services;
+
+import com.eevan.bankingservice.entities.Client;
+import com.eevan.bankingservice.repositories.AccrualLeasesRepository;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LazyAccrualTest {
+
+    private final AccrualLeasesRepository leasesRepository = mock(AccrualLeasesRepository.class);
+    private final LazyAccrual lazyAccrual = new LazyAccrual(leasesRepository, true, 1.05, 2.07, 60000);
+
+    @Test
+    void compoundsOncePerElapsedPeriod() {
+        Client client = client(100.0, 100.0, 3L);
+
+        assertEquals(110.25, lazyAccrual.balanceAt(client, 5L), 1e-9);
+        assertEquals(100.0, lazyAccrual.balanceAt(client, 3L));
+    }
+
+    @Test
+    void stopsAtCap() {
+        Client client = client(100.0, 200.0, 0L);
+
+        assertEquals(207.0, lazyAccrual.balanceAt(client, 1000L), 1e-9);
+    }
+
+    @Test
+    void leavesBalancesAboveCapAlone() {
+        Client client = client(100.0, 500.0, 0L);
+
+        assertEquals(500.0, lazyAccrual.balanceAt(client, 10L));
+    }
+
+    @Test
+    void materializesAndStampsPeriod() {
+        Client client = client(100.0, 100.0, 3L);
+
+        lazyAccrual.materialize(client, 4L);
+        lazyAccrual.materialize(client, 4L);
+
+        assertEquals(105.0, client.getCurrentBalance(), 1e-9);
+        assertEquals(4L, client.getAccrualPeriod());
+    }
+
+    @Test
+    void startsAccruingFromFirstStamp() {
+        Client client = client(100.0, 100.0, null);
+
+        lazyAccrual.materialize(client, 7L);
+
+        assertEquals(100.0, client.getCurrentBalance());
+        assertEquals(7L, client.getAccrualPeriod());
+    }
+
+    @Test
+    void doesNothingWhenDisabled() {
+        LazyAccrual disabled = new LazyAccrual(mock(AccrualLeasesRepository.class), false, 1.05, 2.07, 60000);
+        Client client = client(100.0, 100.0, 3L);
+
+        disabled.materialize(client, 10L);
+
+        assertEquals(100.0, client.getCurrentBalance());
+        assertEquals(3L, client.getAccrualPeriod());
+    }
+
+    @Test
+    void countsPeriodsOnDatabaseClock() {
+        long databaseMillis = System.currentTimeMillis() + 3 * 60000;
+        when(leasesRepository.currentTimeMillis()).thenReturn(databaseMillis);
+
+        long period = lazyAccrual.currentPeriod();
+
+        assertTrue(Math.abs(period - databaseMillis / 60000) <= 1);
+        lazyAccrual.currentPeriod();
+        verify(leasesRepository, times(1)).currentTimeMillis();
+    }
+
+    private static Client client(double initialBalance, double currentBalance, Long accrualPeriod) {
+        return Client.builder().id(1L).initialBalance(initialBalance).currentBalance(currentBalance)
+                .accrualPeriod(accrualPeriod).build();
+    }
+}
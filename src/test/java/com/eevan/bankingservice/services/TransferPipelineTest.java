@@ -0,0 +1,149 @@
+package com.eevan.bankingservice.services;
+
+import com.eevan.bankingservice.dto.TransferRequestDto;
+import com.eevan.bankingservice.dto.TransferResultDto;
+import com.eevan.bankingservice.dto.TransferStatus;
+import com.eevan.bankingservice.utils.IdempotencyKeyConflictException;
+import com.eevan.bankingservice.utils.TransferRejectedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class TransferPipelineTest {
+
+    private final TransferService transferService = mock(TransferService.class);
+    private TransferPipeline pipeline;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        pipeline.stop();
+    }
+
+    @Test
+    void replaysOutcomeForRepeatedIdempotencyKey() {
+        pipeline = directPipeline();
+        when(transferService.transfer(any(), eq("key-1"))).thenAnswer(invocation -> completed(invocation.getArgument(0)));
+
+        TransferResultDto first = pipeline.submit(1L, 2L, 10.0, "key-1").join();
+        TransferResultDto retry = pipeline.submit(1L, 2L, 10.0, "key-1").join();
+
+        assertSame(first, retry);
+        verify(transferService, times(1)).transfer(any(), eq("key-1"));
+    }
+
+    @Test
+    void rejectsIdempotencyKeyReusedForDifferentTransfer() {
+        pipeline = directPipeline();
+        when(transferService.transfer(any(), eq("key-1"))).thenAnswer(invocation -> completed(invocation.getArgument(0)));
+
+        pipeline.submit(1L, 2L, 10.0, "key-1").join();
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> pipeline.submit(1L, 2L, 20.0, "key-1").join());
+
+        assertInstanceOf(IdempotencyKeyConflictException.class, e.getCause());
+    }
+
+    @Test
+    void rejectsKeyStoredForDifferentTransferOnAnotherNode() {
+        pipeline = directPipeline();
+        when(transferService.transfer(any(), eq("key-1"))).thenAnswer(invocation -> {
+            TransferRequestDto request = invocation.getArgument(0);
+            return new TransferResultDto(request.getFromAccountId(), request.getToAccountId(), request.getAmount(),
+                    TransferStatus.IDEMPOTENCY_KEY_CONFLICT, "Idempotency key was already used");
+        });
+
+        for (int i = 0; i < 2; i++) {
+            CompletionException e = assertThrows(CompletionException.class,
+                    () -> pipeline.submit(1L, 2L, 10.0, "key-1").join());
+            assertInstanceOf(IdempotencyKeyConflictException.class, e.getCause());
+        }
+        verify(transferService, times(2)).transfer(any(), eq("key-1"));
+    }
+
+    @Test
+    void rejectsOverlongIdempotencyKey() {
+        pipeline = directPipeline();
+
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> pipeline.submit(1L, 2L, 10.0, "k".repeat(256)).join());
+
+        assertInstanceOf(IdempotencyKeyConflictException.class, e.getCause());
+        verifyNoInteractions(transferService);
+    }
+
+    @Test
+    void retriesAfterFailedCommit() {
+        pipeline = directPipeline();
+        when(transferService.transfer(any(), eq("key-1")))
+                .thenThrow(new IllegalStateException("connection lost"))
+                .thenAnswer(invocation -> completed(invocation.getArgument(0)));
+
+        assertThrows(CompletionException.class, () -> pipeline.submit(1L, 2L, 10.0, "key-1").join());
+        TransferResultDto retry = pipeline.submit(1L, 2L, 10.0, "key-1").join();
+
+        assertEquals(TransferStatus.COMPLETED, retry.getStatus());
+        verify(transferService, times(2)).transfer(any(), eq("key-1"));
+    }
+
+    @Test
+    void commitsQueuedTransfersThroughShardWriter() throws Exception {
+        pipeline = new TransferPipeline(transferService, true, 2, 100, 50, 1000, 60);
+        when(transferService.transferEach(anyList(), anyList())).thenAnswer(invocation -> invocation
+                .<List<TransferRequestDto>>getArgument(0)
+                .stream()
+                .map(this::completed)
+                .toList());
+        pipeline.start();
+
+        List<CompletableFuture<TransferResultDto>> futures = List.of(
+                pipeline.submit(1L, 2L, 10.0, null),
+                pipeline.submit(1L, 3L, 20.0, null),
+                pipeline.submit(2L, 1L, 30.0, null));
+
+        for (CompletableFuture<TransferResultDto> future : futures) {
+            assertEquals(TransferStatus.COMPLETED, future.get(5, TimeUnit.SECONDS).getStatus());
+        }
+        assertEquals(20.0, futures.get(1).get().getAmount());
+    }
+
+    @Test
+    void rejectsTransfersLeftQueuedAtShutdown() throws Exception {
+        pipeline = new TransferPipeline(transferService, true, 1, 10, 10, 1000, 60);
+        CompletableFuture<TransferResultDto> queued = pipeline.submit(1L, 2L, 10.0, null);
+
+        pipeline.stop();
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TransferRejectedException.class, failure.getCause());
+        assertTrue(pipeline.submit(1L, 2L, 10.0, null).isCompletedExceptionally());
+        verifyNoInteractions(transferService);
+    }
+
+    private TransferPipeline directPipeline() {
+        return new TransferPipeline(transferService, false, 1, 10, 10, 1000, 60);
+    }
+
+    private TransferResultDto completed(TransferRequestDto request) {
+        return new TransferResultDto(request.getFromAccountId(), request.getToAccountId(), request.getAmount(),
+                TransferStatus.COMPLETED, null);
+    }
+}
@@ -0,0 +1,237 @@
+package com.eevan.bankingservice.services;
+
+import com.eevan.bankingservice.dto.TransferBatchRequestDto;
+import com.eevan.bankingservice.dto.TransferBatchResponseDto;
+import com.eevan.bankingservice.dto.TransferRequestDto;
+import com.eevan.bankingservice.dto.TransferResultDto;
+import com.eevan.bankingservice.dto.TransferStatus;
+import com.eevan.bankingservice.entities.Client;
+import com.eevan.bankingservice.entities.TransferIdempotencyKey;
+import com.eevan.bankingservice.repositories.AccrualLeasesRepository;
+import com.eevan.bankingservice.repositories.ClientsRepository;
+import com.eevan.bankingservice.repositories.TransferIdempotencyKeysRepository;
+import com.eevan.bankingservice.utils.AccountLocks;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TransferServiceTest {
+
+    private ClientsRepository clientsRepository;
+    private LedgerService ledgerService;
+    private BalanceStream balanceStream;
+    private HotAccounts hotAccounts;
+    private TransferIdempotencyKeysRepository keysRepository;
+    private TransferIdempotencyKeys idempotencyKeys;
+    private TransferService transferService;
+    private PlatformTransactionManager transactionManager;
+    private SimpleMeterRegistry meterRegistry;
+    private Client payer;
+    private Client payee;
+
+    @BeforeEach
+    void setUp() {
+        clientsRepository = mock(ClientsRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        ledgerService = mock(LedgerService.class);
+        balanceStream = mock(BalanceStream.class);
+        hotAccounts = mock(HotAccounts.class);
+        keysRepository = mock(TransferIdempotencyKeysRepository.class);
+        idempotencyKeys = new TransferIdempotencyKeys(keysRepository, transactionManager, 60);
+        meterRegistry = new SimpleMeterRegistry();
+        transferService = new TransferService(clientsRepository, ledgerService, new AccountLocks(16),
+                new LazyAccrual(mock(AccrualLeasesRepository.class), false, 1.05, 2.07, 60000), balanceStream,
+                hotAccounts, idempotencyKeys, transactionManager, meterRegistry);
+        payer = Client.builder().id(1L).currentBalance(100.0).build();
+        payee = Client.builder().id(2L).currentBalance(10.0).build();
+        when(clientsRepository.findAllByIdInForUpdate(any())).thenReturn(List.of(payer, payee));
+    }
+
+    @Test
+    void movesMoneyBetweenClients() {
+        transferService.transferMoney(1L, 2L, 40.0);
+
+        assertEquals(60.0, payer.getCurrentBalance());
+        assertEquals(50.0, payee.getCurrentBalance());
+        verify(balanceStream).changed(Set.of(1L, 2L));
+    }
+
+    @Test
+    void appliesLazyInterestBeforeDebiting() {
+        LazyAccrual lazyAccrual = spy(new LazyAccrual(mock(AccrualLeasesRepository.class), true, 1.05, 2.07, 60000));
+        doReturn(12L).when(lazyAccrual).currentPeriod();
+        transferService = new TransferService(clientsRepository, ledgerService, new AccountLocks(16),
+                lazyAccrual, balanceStream, hotAccounts, idempotencyKeys, transactionManager, meterRegistry);
+        payer.setInitialBalance(100.0);
+        payer.setAccrualPeriod(10L);
+        payee.setInitialBalance(10.0);
+        payee.setAccrualPeriod(12L);
+
+        transferService.transferMoney(1L, 2L, 110.0);
+
+        assertEquals(0.25, payer.getCurrentBalance(), 1e-9);
+        assertEquals(12L, payer.getAccrualPeriod());
+        assertEquals(120.0, payee.getCurrentBalance());
+    }
+
+    @Test
+    void rejectsTransferAboveBalance() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> transferService.transferMoney(1L, 2L, 140.0));
+
+        assertEquals("Insufficient balance", e.getMessage());
+        verify(clientsRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void appliesBatchItemsOneByOne() {
+        TransferBatchRequestDto request = batch(false,
+                new TransferRequestDto(null, 2L, 70.0),
+                new TransferRequestDto(null, 2L, 70.0),
+                new TransferRequestDto(null, 3L, 10.0));
+
+        TransferBatchResponseDto response = transferService.transferBatch(request);
+
+        assertEquals(1, response.getCompleted());
+        assertEquals(List.of(TransferStatus.COMPLETED, TransferStatus.INSUFFICIENT_BALANCE,
+                TransferStatus.CLIENT_NOT_FOUND), statuses(response));
+        assertEquals(30.0, payer.getCurrentBalance());
+        assertEquals(1.0, outcomes(TransferStatus.COMPLETED));
+        assertEquals(1.0, outcomes(TransferStatus.INSUFFICIENT_BALANCE));
+        assertEquals(1.0, outcomes(TransferStatus.CLIENT_NOT_FOUND));
+        assertEquals(1, meterRegistry.get("transfer.duration").tag("mode", "batch").timer().count());
+    }
+
+    @Test
+    void rollsBackAtomicBatchOnFailure() {
+        TransferBatchRequestDto request = batch(true,
+                new TransferRequestDto(null, 2L, 70.0),
+                new TransferRequestDto(null, 2L, 70.0));
+
+        TransferBatchResponseDto response = transferService.transferBatch(request);
+
+        assertEquals(0, response.getCompleted());
+        assertEquals(List.of(TransferStatus.ROLLED_BACK, TransferStatus.INSUFFICIENT_BALANCE), statuses(response));
+        verify(clientsRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void postsCreditsToLedgerWithoutLockingPayee() {
+        when(ledgerService.isEnabled()).thenReturn(true);
+        when(ledgerService.findPendingAmounts(any())).thenReturn(Map.of(1L, -80.0));
+        when(clientsRepository.findAllByIdInForUpdate(Set.of(1L))).thenReturn(List.of(payer));
+        when(clientsRepository.findExistingIds(List.of(2L))).thenReturn(List.of(2L));
+
+        assertThrows(IllegalArgumentException.class, () -> transferService.transferMoney(1L, 2L, 30.0));
+        transferService.transferMoney(1L, 2L, 20.0);
+
+        assertEquals(100.0, payer.getCurrentBalance());
+        assertEquals(10.0, payee.getCurrentBalance());
+        verify(ledgerService).posting(1L, 2L, -20.0);
+        verify(ledgerService).posting(2L, 1L, 20.0);
+        verify(clientsRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void creditsHotPayeeSlotWithoutLockingIt() {
+        when(hotAccounts.isHot(2L)).thenReturn(true);
+        when(clientsRepository.findAllByIdInForUpdate(Set.of(1L))).thenReturn(List.of(payer));
+        when(clientsRepository.findExistingIds(List.of(2L))).thenReturn(List.of(2L));
+
+        transferService.transferMoney(1L, 2L, 20.0);
+
+        assertEquals(80.0, payer.getCurrentBalance());
+        assertEquals(10.0, payee.getCurrentBalance());
+        verify(hotAccounts).credit(Map.of(2L, 20.0));
+    }
+
+    @Test
+    void drainsSlotsWhenDebitExceedsRowBalance() {
+        when(hotAccounts.findSlotTotals(any())).thenReturn(Map.of(1L, 50.0));
+        when(hotAccounts.drain(1L)).thenReturn(60.0);
+
+        assertThrows(IllegalArgumentException.class, () -> transferService.transferMoney(1L, 2L, 160.0));
+        transferService.transferMoney(1L, 2L, 120.0);
+
+        assertEquals(40.0, payer.getCurrentBalance());
+        assertEquals(130.0, payee.getCurrentBalance());
+    }
+
+    @Test
+    void replaysStoredOutcomeOfKeyWithoutMovingMoneyAgain() {
+        TransferRequestDto request = new TransferRequestDto(1L, 2L, 40.0);
+        TransferResultDto first = transferService.transfer(request, "key-1");
+        TransferIdempotencyKey stored = idempotencyKeys.key("key-1", first);
+        verify(keysRepository).saveAll(anyList());
+        when(keysRepository.findAllByPayerIdInAndIdempotencyKeyIn(Set.of(1L), Set.of("key-1")))
+                .thenReturn(List.of(stored));
+
+        TransferResultDto retry = transferService.transfer(request, "key-1");
+
+        assertEquals(TransferStatus.COMPLETED, retry.getStatus());
+        assertEquals(60.0, payer.getCurrentBalance());
+        assertEquals(50.0, payee.getCurrentBalance());
+    }
+
+    @Test
+    void replaysRepeatedKeyWithinOneGroup() {
+        List<TransferResultDto> results = transferService.transferEach(
+                List.of(new TransferRequestDto(1L, 2L, 40.0), new TransferRequestDto(1L, 2L, 40.0)),
+                List.of("key-1", "key-1"));
+
+        assertEquals(List.of(TransferStatus.COMPLETED, TransferStatus.COMPLETED),
+                results.stream().map(TransferResultDto::getStatus).toList());
+        assertEquals(60.0, payer.getCurrentBalance());
+        verify(keysRepository).saveAll(argThat(keys -> ((List<?>) keys).size() == 1));
+    }
+
+    @Test
+    void flagsKeyStoredForDifferentTransfer() {
+        TransferIdempotencyKey stored = idempotencyKeys.key("key-1",
+                new TransferResultDto(1L, 2L, 10.0, TransferStatus.COMPLETED, null));
+        when(keysRepository.findAllByPayerIdInAndIdempotencyKeyIn(any(), any())).thenReturn(List.of(stored));
+
+        TransferResultDto result = transferService.transfer(new TransferRequestDto(1L, 2L, 40.0), "key-1");
+
+        assertEquals(TransferStatus.IDEMPOTENCY_KEY_CONFLICT, result.getStatus());
+        assertEquals(100.0, payer.getCurrentBalance());
+        verify(keysRepository, never()).saveAll(anyList());
+    }
+
+    private TransferBatchRequestDto batch(boolean atomic, TransferRequestDto... transfers) {
+        TransferBatchRequestDto request = new TransferBatchRequestDto();
+        request.setFromAccountId(1L);
+        request.setAtomic(atomic);
+        request.setTransfers(List.of(transfers));
+        return request;
+    }
+
+    private double outcomes(TransferStatus status) {
+        return meterRegistry.get("transfer.outcomes").tag("status", status.name()).counter().count();
+    }
+
+    private List<TransferStatus> statuses(TransferBatchResponseDto response) {
+        return response.getResults().stream()
+                .map(TransferResultDto::getStatus)
+                .toList();
+    }
+}
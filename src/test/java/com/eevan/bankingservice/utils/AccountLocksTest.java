@@ -0,0 +1,61 @@
+package com.eevan.bankingservice.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccountLocksTest {
+
+    private final AccountLocks accountLocks = new AccountLocks(1024);
+
+    @Test
+    void disjointAccountPairsDoNotBlockEachOther() throws Exception {
+        CountDownLatch bothInside = new CountDownLatch(2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Boolean> first = executor.submit(() -> holdWhileWaiting(List.of(1L, 2L), bothInside));
+            Future<Boolean> second = executor.submit(() -> holdWhileWaiting(List.of(3L, 4L), bothInside));
+
+            assertTrue(first.get(5, TimeUnit.SECONDS));
+            assertTrue(second.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void oppositeOrderTransfersDoNotDeadlock() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> forward = executor.submit(() -> lockRepeatedly(List.of(7L, 8L)));
+            Future<?> backward = executor.submit(() -> lockRepeatedly(List.of(8L, 7L)));
+
+            forward.get(10, TimeUnit.SECONDS);
+            backward.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private boolean holdWhileWaiting(List<Long> accountIds, CountDownLatch bothInside) throws InterruptedException {
+        try (var ignored = accountLocks.lock(accountIds)) {
+            bothInside.countDown();
+            return bothInside.await(2, TimeUnit.SECONDS);
+        }
+    }
+
+    private void lockRepeatedly(List<Long> accountIds) {
+        for (int i = 0; i < 100_000; i++) {
+            try (var ignored = accountLocks.lock(accountIds)) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}